@@ -0,0 +1,91 @@
+package com.productcatalog.benchmark;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.productcatalog.config.BinaryFormatConfig;
+import com.productcatalog.dto.ApiResponse;
+import com.productcatalog.entity.Product;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+	private static final TypeReference<ApiResponse<List<Product>>> PRODUCT_LIST_RESPONSE = new TypeReference<>() {
+	};
+
+	@Param({ "10", "100", "1000" })
+	public int listSize;
+
+	@Param({ "json", "cbor", "smile" })
+	public String format;
+
+	private ObjectMapper objectMapper;
+
+	private ApiResponse<List<Product>> response;
+
+	private byte[] encoded;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		// Same defaults as the mappers behind the controllers' message converters
+		objectMapper = switch (format) {
+			case "cbor" -> BinaryFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), new CBORFactory());
+			case "smile" -> BinaryFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(),
+					SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build());
+			default -> Jackson2ObjectMapperBuilder.json().build();
+		};
+		List<Product> products = new ArrayList<>(listSize);
+		LocalDateTime now = LocalDateTime.now();
+		for (long id = 1; id <= listSize; id++) {
+			Product product = new Product(CatalogState.word(id) + " item " + id,
+					"A " + CatalogState.word(id / 3) + " product for everyday use",
+					BigDecimal.valueOf(100 + (id * 7919) % 99_900, 2), (int) (id % 500),
+					CatalogState.CATEGORIES[(int) (id % CatalogState.CATEGORIES.length)],
+					CatalogState.BRANDS[(int) (id % CatalogState.BRANDS.length)], CatalogState.sku(id));
+			product.setId(id);
+			product.setCreatedAt(now);
+			product.setUpdatedAt(now);
+			products.add(product);
+		}
+		response = ApiResponse.success(products, "Products retrieved successfully");
+		encoded = objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public byte[] serializeProductList() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public Object deserializeProductList() throws IOException {
+		return objectMapper.readValue(encoded, PRODUCT_LIST_RESPONSE);
+	}
+}
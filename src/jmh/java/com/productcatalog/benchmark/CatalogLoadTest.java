@@ -0,0 +1,338 @@
+package com.productcatalog.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.productcatalog.ProductcatalogApplication;
+import com.productcatalog.service.ProductServiceImpl;
+
+/**
+ * Open-model HTTP load test. Requests are issued on a fixed arrival schedule (Poisson by
+ * default) regardless of how fast responses come back, and each latency is measured from the
+ * request's scheduled start, so a stalled server shows up as queueing delay instead of fewer
+ * samples. Per-operation histograms are written as HdrHistogram interval logs and percentile
+ * distributions under target/loadtest/&lt;timestamp&gt;, which can be diffed or plotted between runs.
+ *
+ * <p>By default the application is started in this JVM on a random port against a private H2
+ * catalog seeded like {@link CatalogState}; with {@code baseUrl} it targets a running node
+ * instead, which should be seeded with the same {@code catalogSize}.
+ *
+ * <pre>
+ * mvn -Ploadtest verify -Dloadtest.args="rate=2000 duration=60s mix=detail:50,search:20,page:20,stock:10"
+ * </pre>
+ */
+public class CatalogLoadTest {
+
+	enum Operation {
+		DETAIL("detail", 35), SKU("sku", 10), SEARCH("search", 15), PRICE_RANGE("price-range", 10), PAGE("page", 10),
+		FILTER("filter", 5), BATCH("batch", 5), STOCK("stock", 10);
+
+		private final String label;
+
+		private final int defaultWeight;
+
+		Operation(String label, int defaultWeight) {
+			this.label = label;
+			this.defaultWeight = defaultWeight;
+		}
+
+		HttpRequest.Builder request(String baseUrl, int catalogSize) {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			long id = random.nextLong(1, catalogSize + 1L);
+			return switch (this) {
+				case DETAIL -> get(baseUrl + "/" + id);
+				case SKU -> get(baseUrl + "/sku/" + CatalogState.sku(id));
+				case SEARCH -> get(baseUrl + "/search?limit=50&keyword=" + CatalogState.word(id));
+				case PRICE_RANGE -> {
+					double min = random.nextInt(100, 90_000) / 100.0;
+					yield get(baseUrl + "/price-range?minPrice=" + min + "&maxPrice=" + (min + 1));
+				}
+				case PAGE -> get(baseUrl + "/page?size=20&page=" + random.nextInt(10));
+				case FILTER -> get(baseUrl + "/filter?active=true&size=20&category="
+						+ CatalogState.CATEGORIES[random.nextInt(CatalogState.CATEGORIES.length)]
+						+ "&minStock=" + random.nextInt(400));
+				case BATCH -> {
+					StringJoiner ids = new StringJoiner(",");
+					for (int i = 0; i < 20; i++) {
+						ids.add(String.valueOf(random.nextLong(1, catalogSize + 1L)));
+					}
+					yield get(baseUrl + "/batch?ids=" + ids);
+				}
+				case STOCK -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + id + "/stock?stock=" + random.nextInt(500)))
+						.method("PATCH", HttpRequest.BodyPublishers.noBody());
+			};
+		}
+
+		private static HttpRequest.Builder get(String uri) {
+			return HttpRequest.newBuilder(URI.create(uri)).GET();
+		}
+
+		static Operation of(String label) {
+			for (Operation operation : values()) {
+				if (operation.label.equals(label)) {
+					return operation;
+				}
+			}
+			throw new IllegalArgumentException("Unknown operation '" + label + "'");
+		}
+	}
+
+	private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	private final int rate;
+	private final Duration duration;
+	private final Duration warmup;
+	private final int catalogSize;
+	private final boolean poisson;
+	private final int maxInFlight;
+	private final Duration timeout;
+	private final Map<Operation, Integer> mix;
+	private final String targetUrl;
+
+	private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+	private final Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+	private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+	private final LongAdder dropped = new LongAdder();
+
+	CatalogLoadTest(Map<String, String> options) {
+		rate = Integer.parseInt(options.getOrDefault("rate", "1000"));
+		duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+		warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "15s"));
+		catalogSize = Integer.parseInt(options.getOrDefault("catalogSize", "100000"));
+		poisson = !"uniform".equals(options.getOrDefault("arrival", "poisson"));
+		maxInFlight = Integer.parseInt(options.getOrDefault("maxInFlight", "5000"));
+		timeout = DurationStyle.detectAndParse(options.getOrDefault("timeout", "10s"));
+		mix = parseMix(options.get("mix"));
+		targetUrl = options.get("baseUrl");
+		for (Operation operation : mix.keySet()) {
+			recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+			totals.put(operation, new Histogram(HIGHEST_TRACKABLE_NANOS, 3));
+			errors.put(operation, new LongAdder());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new LinkedHashMap<>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (separator <= 0) {
+				throw new IllegalArgumentException("Expected key=value, got '" + arg + "'");
+			}
+			options.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+		new CatalogLoadTest(options).run();
+	}
+
+	void run() throws IOException, InterruptedException {
+		ConfigurableApplicationContext context = targetUrl == null ? startCatalog() : null;
+		try {
+			String baseUrl = targetUrl != null ? targetUrl : "http://localhost:"
+					+ ((WebServerApplicationContext) context).getWebServer().getPort() + "/product-catalog/api/products";
+			Path output = Path.of("target", "loadtest", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+			Files.createDirectories(output);
+			System.out.printf("Load test against %s: %d req/s, mix %s, %s warm-up, %s measured%n", baseUrl, rate, mix, warmup, duration);
+
+			HttpClient client = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.connectTimeout(timeout)
+					.build();
+			try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				drive(client, executor, baseUrl, warmup, null);
+				errors.values().forEach(LongAdder::reset);
+				dropped.reset();
+				try (PrintStream log = new PrintStream(Files.newOutputStream(output.resolve("latency.hlog")))) {
+					drive(client, executor, baseUrl, duration, new HistogramLogWriter(log));
+				}
+			}
+			report(output);
+		} finally {
+			if (context != null) {
+				context.close();
+			}
+		}
+	}
+
+	private ConfigurableApplicationContext startCatalog() {
+		ConfigurableApplicationContext context = SpringApplication.run(ProductcatalogApplication.class,
+				"--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+				"--spring.main.banner-mode=off",
+				"--logging.level.root=WARN",
+				"--logging.level.com.productcatalog=WARN");
+		CatalogState.seed(context.getBean(JdbcTemplate.class), catalogSize);
+		context.getBean(ProductServiceImpl.class).loadIndexes();
+		return context;
+	}
+
+	/**
+	 * Issues requests on schedule for the given time, logging one interval histogram per
+	 * operation and second when a log writer is passed. Arrivals over maxInFlight are counted
+	 * as dropped rather than delaying the schedule.
+	 */
+	private void drive(HttpClient client, ExecutorService executor, String baseUrl, Duration length, HistogramLogWriter log)
+			throws InterruptedException {
+		Operation[] schedule = weightedSchedule();
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		long start = System.nanoTime();
+		long end = start + length.toNanos();
+		long nextInterval = start + TimeUnit.SECONDS.toNanos(1);
+		double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / (double) rate;
+		double intended = start;
+		if (log != null) {
+			long startMillis = System.currentTimeMillis();
+			log.outputLogFormatVersion();
+			log.outputStartTime(startMillis);
+			log.setBaseTime(startMillis);
+			log.outputLegend();
+		}
+		recorders.values().forEach(Recorder::reset);
+		while (intended < end) {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			intended += poisson ? -Math.log(1 - random.nextDouble()) * meanGapNanos : meanGapNanos;
+			long scheduledAt = (long) intended;
+			while (System.nanoTime() < scheduledAt) {
+				LockSupport.parkNanos(scheduledAt - System.nanoTime());
+			}
+			if (log != null && System.nanoTime() >= nextInterval) {
+				logIntervals(log);
+				nextInterval += TimeUnit.SECONDS.toNanos(1);
+			}
+			Operation operation = schedule[random.nextInt(schedule.length)];
+			if (!inFlight.tryAcquire()) {
+				dropped.increment();
+				errors.get(operation).increment();
+				continue;
+			}
+			HttpRequest request = operation.request(baseUrl, catalogSize).timeout(timeout).build();
+			executor.execute(() -> {
+				try {
+					HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+					if (response.statusCode() >= 400) {
+						errors.get(operation).increment();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					errors.get(operation).increment();
+				} catch (IOException e) {
+					errors.get(operation).increment();
+				} finally {
+					recorders.get(operation).recordValue(Math.min(System.nanoTime() - scheduledAt, HIGHEST_TRACKABLE_NANOS));
+					inFlight.release();
+				}
+			});
+		}
+		// Let the requests already issued finish so their latency is part of this phase
+		inFlight.acquire(maxInFlight);
+		inFlight.release(maxInFlight);
+		if (log != null) {
+			logIntervals(log);
+		}
+	}
+
+	private void logIntervals(HistogramLogWriter log) {
+		recorders.forEach((operation, recorder) -> {
+			Histogram interval = recorder.getIntervalHistogram();
+			interval.setTag(operation.label);
+			log.outputIntervalHistogram(interval);
+			totals.get(operation).add(interval);
+		});
+	}
+
+	private void report(Path output) throws IOException {
+		Histogram all = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+		StringBuilder summary = new StringBuilder(String.format("%-12s %10s %8s %10s %10s %10s %10s %10s%n",
+				"operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+		for (Map.Entry<Operation, Histogram> entry : totals.entrySet()) {
+			Histogram histogram = entry.getValue();
+			all.add(histogram);
+			summary.append(line(entry.getKey().label, histogram, errors.get(entry.getKey()).sum()));
+			writeDistribution(output.resolve(entry.getKey().label + ".hgrm"), histogram);
+		}
+		long totalErrors = errors.values().stream().mapToLong(LongAdder::sum).sum();
+		summary.append(line("all", all, totalErrors));
+		summary.append(String.format("%d arrivals dropped at maxInFlight=%d%n", dropped.sum(), maxInFlight));
+		writeDistribution(output.resolve("all.hgrm"), all);
+		Files.writeString(output.resolve("summary.txt"), summary);
+		System.out.print(summary);
+		System.out.println("Histograms written to " + output.toAbsolutePath());
+	}
+
+	private String line(String label, Histogram histogram, long errorCount) {
+		return String.format("%-12s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", label, histogram.getTotalCount(), errorCount,
+				histogram.getTotalCount() / (double) duration.toSeconds(),
+				millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+				millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+	}
+
+	private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+		try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+			histogram.outputPercentileDistribution(out, 1_000_000.0);
+		}
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	private Operation[] weightedSchedule() {
+		int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+		Operation[] schedule = new Operation[total];
+		int index = 0;
+		for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+			for (int i = 0; i < entry.getValue(); i++) {
+				schedule[index++] = entry.getKey();
+			}
+		}
+		return schedule;
+	}
+
+	private static Map<Operation, Integer> parseMix(String spec) {
+		Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		if (spec == null || spec.isBlank()) {
+			for (Operation operation : Operation.values()) {
+				mix.put(operation, operation.defaultWeight);
+			}
+			return mix;
+		}
+		for (String part : spec.split(",")) {
+			String[] weighted = part.trim().split(":");
+			int weight = weighted.length > 1 ? Integer.parseInt(weighted[1]) : 1;
+			if (weight > 0) {
+				mix.put(Operation.of(weighted[0]), weight);
+			}
+		}
+		if (mix.isEmpty()) {
+			throw new IllegalArgumentException("mix selects no operations");
+		}
+		return mix;
+	}
+}
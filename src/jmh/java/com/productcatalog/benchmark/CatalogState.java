@@ -0,0 +1,110 @@
+package com.productcatalog.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.productcatalog.ProductcatalogApplication;
+import com.productcatalog.repository.ProductRepository;
+import com.productcatalog.service.ProductService;
+import com.productcatalog.service.ProductServiceImpl;
+
+/**
+ * Boots the application without a web server against a private embedded H2 database
+ * seeded with {@code catalogSize} products.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+	static final String[] CATEGORIES = { "Electronics", "Books", "Home", "Garden", "Toys", "Sports", "Beauty", "Grocery" };
+
+	static final String[] BRANDS = { "Acme", "Globex", "Initech", "Umbrella", "Hooli", "Stark", "Wayne", "Tyrell" };
+
+	private static final String[] WORDS = { "wireless", "compact", "premium", "organic", "portable", "classic",
+			"smart", "durable", "deluxe", "eco", "ultra", "mini", "pro", "steel", "cotton", "bamboo" };
+
+	private static final int SEED_BATCH_SIZE = 5_000;
+
+	@Param({ "10000", "100000", "1000000" })
+	public int catalogSize;
+
+	public ConfigurableApplicationContext context;
+
+	public ProductService productService;
+
+	public ProductRepository productRepository;
+
+	@Setup(Level.Trial)
+	public void startCatalog() {
+		SpringApplication application = new SpringApplication(ProductcatalogApplication.class);
+		application.setWebApplicationType(WebApplicationType.NONE);
+		context = application.run(
+				"--spring.datasource.url=jdbc:h2:mem:bench" + catalogSize + ";DB_CLOSE_DELAY=-1",
+				"--spring.main.banner-mode=off",
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN",
+				"--logging.level.com.productcatalog=WARN",
+				"--logging.level.org.hibernate.SQL=WARN",
+				"--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+		productService = context.getBean(ProductService.class);
+		productRepository = context.getBean(ProductRepository.class);
+
+		seed(context.getBean(JdbcTemplate.class), catalogSize);
+		context.getBean(ProductServiceImpl.class).loadIndexes();
+	}
+
+	@TearDown(Level.Trial)
+	public void stopCatalog() {
+		context.close();
+	}
+
+	public static String sku(long id) {
+		return "SKU-" + id;
+	}
+
+	public static String word(long seed) {
+		return WORDS[(int) Math.floorMod(seed, (long) WORDS.length)];
+	}
+
+	static void seed(JdbcTemplate jdbcTemplate, int size) {
+		String sql = "INSERT INTO products (id, name, description, price, stock_quantity, category, brand, sku, "
+				+ "is_active, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+		for (long id = 1; id <= size; id++) {
+			batch.add(new Object[] {
+					id,
+					word(id) + " " + word(id / 7) + " item " + id,
+					"A " + word(id / 3) + " and " + word(id / 11) + " product for everyday use",
+					BigDecimal.valueOf(100 + (id * 7919) % 99_900, 2),
+					(int) (id % 500),
+					CATEGORIES[(int) (id % CATEGORIES.length)],
+					BRANDS[(int) ((id / 3) % BRANDS.length)],
+					sku(id),
+					id % 10 != 0,
+					now,
+					now });
+			if (batch.size() == SEED_BATCH_SIZE) {
+				jdbcTemplate.batchUpdate(sql, batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			jdbcTemplate.batchUpdate(sql, batch);
+		}
+		jdbcTemplate.execute("ALTER SEQUENCE products_seq RESTART WITH " + (size + 1));
+	}
+}
@@ -0,0 +1,70 @@
+package com.productcatalog.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.productcatalog.entity.Product;
+import com.productcatalog.search.SearchOperator;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx4g" })
+public class ProductServiceBenchmark {
+
+	@Benchmark
+	public Optional<Product> getProductById(CatalogState state) {
+		return state.productService.getProductById(randomId(state));
+	}
+
+	@Benchmark
+	public Optional<Product> getProductBySku(CatalogState state) {
+		return state.productService.getProductBySku(CatalogState.sku(randomId(state)));
+	}
+
+	@Benchmark
+	public Optional<Product> repositoryFindById(CatalogState state) {
+		return state.productRepository.findById(randomId(state));
+	}
+
+	@Benchmark
+	public List<Product> searchSingleTerm(CatalogState state) {
+		return state.productService.searchProducts(CatalogState.word(randomId(state)), SearchOperator.AND, 50);
+	}
+
+	@Benchmark
+	public List<Product> searchTwoTermsAnd(CatalogState state) {
+		long seed = randomId(state);
+		return state.productService.searchProducts(CatalogState.word(seed) + " " + CatalogState.word(seed / 7),
+				SearchOperator.AND, 50);
+	}
+
+	@Benchmark
+	public List<Product> priceRangeNarrow(CatalogState state) {
+		BigDecimal min = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(100, 90_000), 2);
+		return state.productService.getProductsByPriceRange(min, min.add(BigDecimal.ONE));
+	}
+
+	@Benchmark
+	public List<Product> priceRangeFilteredByCategory(CatalogState state) {
+		BigDecimal min = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(100, 90_000), 2);
+		String category = CatalogState.CATEGORIES[ThreadLocalRandom.current().nextInt(CatalogState.CATEGORIES.length)];
+		return state.productService.getProductsByPriceRange(min, min.add(BigDecimal.TEN), category, true);
+	}
+
+	private static long randomId(CatalogState state) {
+		return ThreadLocalRandom.current().nextLong(1, state.catalogSize + 1L);
+	}
+}
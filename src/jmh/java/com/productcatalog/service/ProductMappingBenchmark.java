@@ -0,0 +1,47 @@
+package com.productcatalog.service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.productcatalog.dto.ProductDTO;
+import com.productcatalog.entity.Product;
+
+// Lives in the service package to reach the package-private mapDTOToEntity
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+	private ProductServiceImpl service;
+
+	private ProductDTO dto;
+
+	@Setup
+	public void setUp() {
+		service = new ProductServiceImpl();
+		dto = new ProductDTO("Wireless Mouse", "Compact wireless mouse", new BigDecimal("24.99"), 120,
+				"Electronics", "Acme", "SKU-42");
+		dto.setIsActive(true);
+	}
+
+	@Benchmark
+	public Product mapDTOToEntity() {
+		Product product = new Product();
+		service.mapDTOToEntity(dto, product);
+		return product;
+	}
+}
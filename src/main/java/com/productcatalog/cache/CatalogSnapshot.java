@@ -0,0 +1,541 @@
+package com.productcatalog.cache;
+
+import com.productcatalog.entity.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable, column-oriented copy of the catalog for lock-free reads. Rows live in
+ * id-ordered segments of primitive columns and interned strings, and SKUs in hashed
+ * buckets. A write copies only the segments and buckets it touches and publishes the
+ * result through a single volatile reference, so readers never block or see a torn state.
+ * Writes arrive from after-commit callbacks, which can run out of commit order: an upsert
+ * older than the stored row version, or for a removed id, is ignored. Each row's Product
+ * is materialised once and kept; lookups hand every caller its own copy of it, as
+ * {@link ProductCache} does, so a caller that modifies a result cannot change the snapshot.
+ */
+@Component
+public class CatalogSnapshot {
+
+    private static final int SEGMENT_SIZE = 1024;
+    private static final int SKU_BUCKETS = 1024;
+
+    private final boolean enabled;
+    private volatile State state = State.EMPTY;
+    private volatile boolean loaded;
+    // Ids are never reused, so a removed id only comes back through a late, older upsert; guarded by this
+    private final Set<Long> removedIds = new HashSet<>();
+
+    public CatalogSnapshot(@Value("${catalog.snapshot.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // Reads may be served from the snapshot once the initial load has completed
+    public boolean isReady() {
+        return enabled && loaded;
+    }
+
+    public long version() {
+        return state.version;
+    }
+
+    public int size() {
+        return state.size;
+    }
+
+    public synchronized void rebuild(Collection<Product> products) {
+        if (!enabled) {
+            return;
+        }
+        List<Product> sorted = new ArrayList<>(products.size());
+        for (Product product : products) {
+            if (product.getId() != null) {
+                sorted.add(product);
+            }
+        }
+        sorted.sort(Comparator.comparing(Product::getId));
+
+        SegmentBuilder builder = new SegmentBuilder(sorted.size());
+        sorted.forEach(builder::add);
+        List<Segment> segments = builder.build();
+
+        Map<Integer, TreeMap<String, Long>> buckets = new HashMap<>();
+        for (Product product : sorted) {
+            if (product.getSku() != null) {
+                buckets.computeIfAbsent(bucketOf(product.getSku()), k -> new TreeMap<>()).put(product.getSku(), product.getId());
+            }
+        }
+        SkuBucket[] skuBuckets = State.EMPTY.skuBuckets.clone();
+        buckets.forEach((index, skus) -> skuBuckets[index] = SkuBucket.of(skus));
+
+        state = new State(segments.toArray(new Segment[0]), skuBuckets, sorted.size(), state.version + 1);
+        removedIds.clear();
+        loaded = true;
+    }
+
+    public synchronized void upsertAll(Collection<Product> products) {
+        if (!enabled) {
+            return;
+        }
+        State current = state;
+        TreeMap<Long, Product> updates = new TreeMap<>();
+        for (Product product : products) {
+            if (product.getId() != null && product.getPrice() != null && !isStale(current, product)) {
+                updates.merge(product.getId(), product, (a, b) -> version(b) >= version(a) ? b : a);
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        // Remove every old SKU before adding new ones so SKUs swapped within one batch resolve correctly
+        SkuBucket[] skuBuckets = current.skuBuckets.clone();
+        Map<Integer, TreeMap<String, Long>> touched = new HashMap<>();
+        for (Product product : updates.values()) {
+            String oldSku = current.skuOf(product.getId());
+            if (oldSku != null) {
+                editable(touched, skuBuckets, oldSku).remove(oldSku, product.getId());
+            }
+        }
+        for (Product product : updates.values()) {
+            if (product.getSku() != null) {
+                editable(touched, skuBuckets, product.getSku()).put(product.getSku(), product.getId());
+            }
+        }
+        touched.forEach((index, skus) -> skuBuckets[index] = SkuBucket.of(skus));
+
+        List<Segment> segments = new ArrayList<>(current.segments.length + 1);
+        Iterator<Product> pending = updates.values().iterator();
+        Product next = pending.next();
+        int added = 0;
+        for (int s = 0; s < current.segments.length; s++) {
+            Segment segment = current.segments[s];
+            long upperBound = s + 1 < current.segments.length ? current.segments[s + 1].ids[0] : Long.MAX_VALUE;
+            if (next == null || next.getId() >= upperBound) {
+                segments.add(segment);
+                continue;
+            }
+            SegmentBuilder builder = new SegmentBuilder(segment.size() + updates.size());
+            int row = 0;
+            while (row < segment.size() || (next != null && next.getId() < upperBound)) {
+                boolean takeUpdate = next != null && next.getId() < upperBound
+                        && (row >= segment.size() || next.getId() <= segment.ids[row]);
+                if (takeUpdate) {
+                    if (row < segment.size() && next.getId() == segment.ids[row]) {
+                        row++;
+                    } else {
+                        added++;
+                    }
+                    builder.add(next);
+                    next = pending.hasNext() ? pending.next() : null;
+                } else {
+                    builder.add(segment, row++);
+                }
+            }
+            segments.addAll(builder.build());
+        }
+        if (next != null) {
+            // Catalog was empty
+            SegmentBuilder builder = new SegmentBuilder(updates.size());
+            builder.add(next);
+            pending.forEachRemaining(builder::add);
+            added += builder.size;
+            segments.addAll(builder.build());
+        }
+
+        state = new State(segments.toArray(new Segment[0]), skuBuckets, current.size + added, current.version + 1);
+    }
+
+    public synchronized void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        removedIds.add(id);
+        State current = state;
+        int s = current.segmentOf(id);
+        if (s < 0) {
+            return;
+        }
+        Segment segment = current.segments[s];
+        int row = Arrays.binarySearch(segment.ids, id);
+        if (row < 0) {
+            return;
+        }
+
+        SkuBucket[] skuBuckets = current.skuBuckets;
+        String sku = segment.skus[row];
+        if (sku != null) {
+            skuBuckets = skuBuckets.clone();
+            TreeMap<String, Long> skus = skuBuckets[bucketOf(sku)].toMap();
+            skus.remove(sku, id);
+            skuBuckets[bucketOf(sku)] = SkuBucket.of(skus);
+        }
+
+        List<Segment> segments = new ArrayList<>(Arrays.asList(current.segments));
+        if (segment.size() == 1) {
+            segments.remove(s);
+        } else {
+            SegmentBuilder builder = new SegmentBuilder(segment.size() - 1);
+            for (int i = 0; i < segment.size(); i++) {
+                if (i != row) {
+                    builder.add(segment, i);
+                }
+            }
+            segments.set(s, builder.build().get(0));
+        }
+        state = new State(segments.toArray(new Segment[0]), skuBuckets, current.size - 1, current.version + 1);
+    }
+
+    public Product findById(long id) {
+        State current = state;
+        int s = current.segmentOf(id);
+        if (s < 0) {
+            return null;
+        }
+        Segment segment = current.segments[s];
+        int row = Arrays.binarySearch(segment.ids, id);
+        return row >= 0 ? segment.toProduct(row) : null;
+    }
+
+    public Product findBySku(String sku) {
+        if (sku == null) {
+            return null;
+        }
+        State current = state;
+        SkuBucket bucket = current.skuBuckets[bucketOf(sku)];
+        int position = Arrays.binarySearch(bucket.skus, sku);
+        if (position < 0) {
+            return null;
+        }
+        long id = bucket.ids[position];
+        Segment segment = current.segments[current.segmentOf(id)];
+        return segment.toProduct(Arrays.binarySearch(segment.ids, id));
+    }
+
+    // Products for the given ids in the same order; unknown ids are skipped
+    public List<Product> findAllById(long[] ids) {
+        State current = state;
+        List<Product> products = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            int s = current.segmentOf(id);
+            if (s >= 0) {
+                int row = Arrays.binarySearch(current.segments[s].ids, id);
+                if (row >= 0) {
+                    products.add(current.segments[s].toProduct(row));
+                }
+            }
+        }
+        return products;
+    }
+
+    public List<Product> findAll() {
+        return scan((segment, row) -> true);
+    }
+
+    public List<Product> findByCategory(String category) {
+        return scan((segment, row) -> category.equals(segment.categories[row]));
+    }
+
+    public List<Product> findActive() {
+        return scan((segment, row) -> segment.active[row]);
+    }
+
+    private List<Product> scan(RowFilter filter) {
+        State current = state;
+        List<Product> products = new ArrayList<>();
+        for (Segment segment : current.segments) {
+            for (int row = 0; row < segment.size(); row++) {
+                if (filter.test(segment, row)) {
+                    products.add(segment.toProduct(row));
+                }
+            }
+        }
+        return products;
+    }
+
+    private boolean isStale(State current, Product product) {
+        if (removedIds.contains(product.getId())) {
+            return true;
+        }
+        int s = current.segmentOf(product.getId());
+        if (s < 0) {
+            return false;
+        }
+        int row = Arrays.binarySearch(current.segments[s].ids, product.getId());
+        return row >= 0 && version(product) < current.segments[s].versions[row];
+    }
+
+    private static long version(Product product) {
+        return product.getVersion() != null ? product.getVersion() : 0;
+    }
+
+    private static TreeMap<String, Long> editable(Map<Integer, TreeMap<String, Long>> touched, SkuBucket[] buckets, String sku) {
+        int index = bucketOf(sku);
+        return touched.computeIfAbsent(index, k -> buckets[k].toMap());
+    }
+
+    private static int bucketOf(String sku) {
+        return (sku.hashCode() & 0x7fffffff) % SKU_BUCKETS;
+    }
+
+    private static LocalDateTime micros(LocalDateTime value) {
+        return value != null ? value.truncatedTo(ChronoUnit.MICROS) : null;
+    }
+
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    @FunctionalInterface
+    private interface RowFilter {
+        boolean test(Segment segment, int row);
+    }
+
+    private static final class State {
+        private static final State EMPTY = new State(new Segment[0], emptyBuckets(), 0, 0);
+
+        private final Segment[] segments;
+        private final SkuBucket[] skuBuckets;
+        private final int size;
+        private final long version;
+
+        private State(Segment[] segments, SkuBucket[] skuBuckets, int size, long version) {
+            this.segments = segments;
+            this.skuBuckets = skuBuckets;
+            this.size = size;
+            this.version = version;
+        }
+
+        // Last segment whose first id is <= id, or -1
+        private int segmentOf(long id) {
+            int low = 0;
+            int high = segments.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (segments[mid].ids[0] <= id) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+
+        private String skuOf(long id) {
+            int s = segmentOf(id);
+            if (s < 0) {
+                return null;
+            }
+            int row = Arrays.binarySearch(segments[s].ids, id);
+            return row >= 0 ? segments[s].skus[row] : null;
+        }
+
+        private static SkuBucket[] emptyBuckets() {
+            SkuBucket[] buckets = new SkuBucket[SKU_BUCKETS];
+            Arrays.fill(buckets, SkuBucket.EMPTY);
+            return buckets;
+        }
+    }
+
+    private static final class SkuBucket {
+        private static final SkuBucket EMPTY = new SkuBucket(new String[0], new long[0]);
+
+        private final String[] skus;
+        private final long[] ids;
+
+        private SkuBucket(String[] skus, long[] ids) {
+            this.skus = skus;
+            this.ids = ids;
+        }
+
+        private static SkuBucket of(TreeMap<String, Long> entries) {
+            if (entries.isEmpty()) {
+                return EMPTY;
+            }
+            String[] skus = new String[entries.size()];
+            long[] ids = new long[entries.size()];
+            int i = 0;
+            for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                skus[i] = entry.getKey();
+                ids[i++] = entry.getValue();
+            }
+            return new SkuBucket(skus, ids);
+        }
+
+        private TreeMap<String, Long> toMap() {
+            TreeMap<String, Long> entries = new TreeMap<>();
+            for (int i = 0; i < skus.length; i++) {
+                entries.put(skus[i], ids[i]);
+            }
+            return entries;
+        }
+    }
+
+    private static final class Segment {
+        private final long[] ids;
+        private final String[] names;
+        private final String[] descriptions;
+        private final String[] categories;
+        private final String[] brands;
+        private final String[] skus;
+        private final long[] priceCents;
+        private final int[] stock;
+        private final boolean[] active;
+        private final LocalDateTime[] createdAt;
+        private final LocalDateTime[] updatedAt;
+        private final long[] versions;
+        // Filled on first read of each row
+        private final AtomicReferenceArray<Product> products;
+
+        private Segment(SegmentBuilder b, int from, int to) {
+            ids = Arrays.copyOfRange(b.ids, from, to);
+            names = Arrays.copyOfRange(b.names, from, to);
+            descriptions = Arrays.copyOfRange(b.descriptions, from, to);
+            categories = Arrays.copyOfRange(b.categories, from, to);
+            brands = Arrays.copyOfRange(b.brands, from, to);
+            skus = Arrays.copyOfRange(b.skus, from, to);
+            priceCents = Arrays.copyOfRange(b.priceCents, from, to);
+            stock = Arrays.copyOfRange(b.stock, from, to);
+            active = Arrays.copyOfRange(b.active, from, to);
+            createdAt = Arrays.copyOfRange(b.createdAt, from, to);
+            updatedAt = Arrays.copyOfRange(b.updatedAt, from, to);
+            versions = Arrays.copyOfRange(b.versions, from, to);
+            products = new AtomicReferenceArray<>(Arrays.copyOfRange(b.products, from, to));
+        }
+
+        private int size() {
+            return ids.length;
+        }
+
+        private Product toProduct(int row) {
+            Product product = products.get(row);
+            if (product == null) {
+                Product materialised = materialise(row);
+                product = products.compareAndExchange(row, null, materialised);
+                if (product == null) {
+                    product = materialised;
+                }
+            }
+            return new Product(product);
+        }
+
+        // A plain detached Product; nothing is hydrated through a persistence context
+        private Product materialise(int row) {
+            Product product = new Product();
+            product.setId(ids[row]);
+            product.setName(names[row]);
+            product.setDescription(descriptions[row]);
+            product.setCategory(categories[row]);
+            product.setBrand(brands[row]);
+            product.setSku(skus[row]);
+            product.setPrice(BigDecimal.valueOf(priceCents[row], 2));
+            product.setStockQuantity(stock[row]);
+            product.setIsActive(active[row]);
+            product.setCreatedAt(createdAt[row]);
+            product.setUpdatedAt(updatedAt[row]);
+            product.setVersion(versions[row]);
+            return product;
+        }
+    }
+
+    private static final class SegmentBuilder {
+        private final long[] ids;
+        private final String[] names;
+        private final String[] descriptions;
+        private final String[] categories;
+        private final String[] brands;
+        private final String[] skus;
+        private final long[] priceCents;
+        private final int[] stock;
+        private final boolean[] active;
+        private final LocalDateTime[] createdAt;
+        private final LocalDateTime[] updatedAt;
+        private final long[] versions;
+        private final Product[] products;
+        private int size;
+
+        private SegmentBuilder(int capacity) {
+            ids = new long[capacity];
+            names = new String[capacity];
+            descriptions = new String[capacity];
+            categories = new String[capacity];
+            brands = new String[capacity];
+            skus = new String[capacity];
+            priceCents = new long[capacity];
+            stock = new int[capacity];
+            active = new boolean[capacity];
+            createdAt = new LocalDateTime[capacity];
+            updatedAt = new LocalDateTime[capacity];
+            versions = new long[capacity];
+            products = new Product[capacity];
+        }
+
+        private void add(Product product) {
+            ids[size] = product.getId();
+            names[size] = product.getName();
+            descriptions[size] = product.getDescription();
+            categories[size] = intern(product.getCategory());
+            brands[size] = intern(product.getBrand());
+            skus[size] = product.getSku();
+            priceCents[size] = product.getPrice().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            stock[size] = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+            active[size] = !Boolean.FALSE.equals(product.getIsActive());
+            // Saved entities still carry nanosecond timestamps; keep what the TIMESTAMP(6) columns hold
+            createdAt[size] = micros(product.getCreatedAt());
+            updatedAt[size] = micros(product.getUpdatedAt());
+            versions[size] = product.getVersion() != null ? product.getVersion() : 0;
+            size++;
+        }
+
+        private void add(Segment segment, int row) {
+            ids[size] = segment.ids[row];
+            names[size] = segment.names[row];
+            descriptions[size] = segment.descriptions[row];
+            categories[size] = segment.categories[row];
+            brands[size] = segment.brands[row];
+            skus[size] = segment.skus[row];
+            priceCents[size] = segment.priceCents[row];
+            stock[size] = segment.stock[row];
+            active[size] = segment.active[row];
+            createdAt[size] = segment.createdAt[row];
+            updatedAt[size] = segment.updatedAt[row];
+            versions[size] = segment.versions[row];
+            products[size] = segment.products.get(row);
+            size++;
+        }
+
+        // One segment, or SEGMENT_SIZE chunks once the rows outgrow twice that
+        private List<Segment> build() {
+            if (size == 0) {
+                return List.of();
+            }
+            if (size <= 2 * SEGMENT_SIZE) {
+                return List.of(new Segment(this, 0, size));
+            }
+            List<Segment> segments = new ArrayList<>(size / SEGMENT_SIZE + 1);
+            for (int from = 0; from < size; from += SEGMENT_SIZE) {
+                segments.add(new Segment(this, from, Math.min(from + SEGMENT_SIZE, size)));
+            }
+            return segments;
+        }
+    }
+}
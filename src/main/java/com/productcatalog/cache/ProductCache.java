@@ -0,0 +1,180 @@
+package com.productcatalog.cache;
+
+import com.productcatalog.entity.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of detached products, addressable by id and by SKU.
+ * Entries expire after a fixed time-to-live; callers always receive a copy.
+ * A product read from the database is only stored if its id and SKU have not been evicted
+ * since the read started, so a read racing a write cannot put the old row back.
+ */
+@Component
+public class ProductCache {
+    
+    private static final int EVICTION_STRIPES = 256;
+    
+    private final int maxSize;
+    private final long ttlNanos;
+    
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> idsBySku = new HashMap<>();
+    // Generation of the last eviction per stripe of ids and SKUs
+    private final long[] evictedAt = new long[EVICTION_STRIPES];
+    // Bumped by every eviction and clear
+    private long generation;
+    private long clearedAt;
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    public ProductCache(@Value("${catalog.cache.max-size:10000}") int maxSize,
+                        @Value("${catalog.cache.ttl:10m}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+    
+    public Product getById(Long id) {
+        if (id == null) {
+            return null;
+        }
+        synchronized (this) {
+            return copyOf(lookup(id));
+        }
+    }
+    
+    public Product getBySku(String sku) {
+        if (sku == null) {
+            return null;
+        }
+        synchronized (this) {
+            Long id = idsBySku.get(sku);
+            if (id == null) {
+                misses.increment();
+                return null;
+            }
+            return copyOf(lookup(id));
+        }
+    }
+    
+    /** Stamp to take before reading a product from the database, for {@link #put(Product, long)}. */
+    public synchronized long generation() {
+        return generation;
+    }
+    
+    /** Stores a product read at the given generation, unless its id or SKU has been evicted since. */
+    public void put(Product product, long loadedAt) {
+        if (maxSize <= 0 || product == null || product.getId() == null) {
+            return;
+        }
+        Entry entry = new Entry(new Product(product), System.nanoTime() + ttlNanos);
+        synchronized (this) {
+            if (evictedSince(product, loadedAt)) {
+                return;
+            }
+            removeEntry(product.getId());
+            entries.put(product.getId(), entry);
+            if (product.getSku() != null) {
+                idsBySku.put(product.getSku(), product.getId());
+            }
+            Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                Entry evicted = eldest.next().getValue();
+                eldest.remove();
+                unlinkSku(evicted.product);
+                evictions.increment();
+            }
+        }
+    }
+    
+    public synchronized void evict(Long id) {
+        if (id != null) {
+            evictedAt[stripe(id)] = ++generation;
+            removeEntry(id);
+        }
+    }
+    
+    public synchronized void evictSku(String sku) {
+        if (sku != null) {
+            evictedAt[stripe(sku)] = ++generation;
+            Long id = idsBySku.get(sku);
+            if (id != null) {
+                removeEntry(id);
+            }
+        }
+    }
+    
+    public synchronized void clear() {
+        clearedAt = ++generation;
+        entries.clear();
+        idsBySku.clear();
+    }
+    
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), maxSize);
+    }
+    
+    private boolean evictedSince(Product product, long loadedAt) {
+        if (clearedAt > loadedAt || evictedAt[stripe(product.getId())] > loadedAt) {
+            return true;
+        }
+        return product.getSku() != null && evictedAt[stripe(product.getSku())] > loadedAt;
+    }
+    
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (EVICTION_STRIPES - 1);
+    }
+    
+    private Product lookup(Long id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() < 0) {
+            removeEntry(id);
+            evictions.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.product;
+    }
+    
+    private void removeEntry(Long id) {
+        Entry removed = entries.remove(id);
+        if (removed != null) {
+            unlinkSku(removed.product);
+        }
+    }
+    
+    private void unlinkSku(Product product) {
+        if (product.getSku() != null) {
+            idsBySku.remove(product.getSku(), product.getId());
+        }
+    }
+    
+    private static Product copyOf(Product product) {
+        return product != null ? new Product(product) : null;
+    }
+    
+    private static final class Entry {
+        private final Product product;
+        private final long expiresAt;
+        
+        private Entry(Product product, long expiresAt) {
+            this.product = product;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
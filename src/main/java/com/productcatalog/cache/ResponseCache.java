@@ -0,0 +1,156 @@
+package com.productcatalog.cache;
+
+import com.productcatalog.entity.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON bodies of hot list responses, stored both as-is and gzip-compressed so a
+ * repeated request is answered by writing the stored array. Category and active-list entries
+ * are dropped only by writes to products they contain or could now contain; page entries are
+ * dropped by every write, since any product can move into or out of a page.
+ */
+@Component
+public class ResponseCache {
+
+    public enum Scope { CATEGORY, ACTIVE, PAGE }
+
+    /** Endpoint and parameter set; value is the category for CATEGORY and the page parameters for PAGE. */
+    public record Key(Scope scope, String value) {
+    }
+
+    /** A stored response; productIds are sorted and are read-only, like both bodies. */
+    public static final class Entry {
+        private final byte[] body;
+        private final byte[] gzipped;
+        private final String eTag;
+        private final long[] productIds;
+
+        private Entry(byte[] body, byte[] gzipped, String eTag, long[] productIds) {
+            this.body = body;
+            this.gzipped = gzipped;
+            this.eTag = eTag;
+            this.productIds = productIds;
+        }
+
+        public byte[] body() {
+            return body;
+        }
+
+        public byte[] gzipped() {
+            return gzipped;
+        }
+
+        public String eTag() {
+            return eTag;
+        }
+
+        private boolean contains(Long id) {
+            return id != null && Arrays.binarySearch(productIds, id) >= 0;
+        }
+    }
+
+    private final int maxEntries;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Bumped by every invalidation; a response loaded before a write is not stored after it
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache(@Value("${catalog.response-cache.max-entries:256}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized Entry get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Compresses and stores a serialized body loaded at the given generation. The entry is
+     * returned either way, but only kept if no write has invalidated the cache since.
+     */
+    public Entry put(Key key, byte[] body, String eTag, Collection<Product> products, long loadedAt) {
+        long[] ids = products.stream().map(Product::getId).filter(Objects::nonNull).mapToLong(Long::longValue).sorted().toArray();
+        Entry entry = new Entry(body, gzip(body), eTag, ids);
+        synchronized (this) {
+            if (!isEnabled() || generation != loadedAt) {
+                return entry;
+            }
+            entries.put(key, entry);
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+        return entry;
+    }
+
+    /** Drops the entries the saved products may have changed: their categories, lists holding them, and pages. */
+    public synchronized void invalidate(Collection<Product> products) {
+        generation++;
+        entries.entrySet().removeIf(cached -> products.stream().anyMatch(product -> affects(cached.getKey(), cached.getValue(), product)));
+    }
+
+    public synchronized void invalidate(Long deletedId) {
+        generation++;
+        entries.entrySet().removeIf(cached -> cached.getKey().scope() == Scope.PAGE || cached.getValue().contains(deletedId));
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), maxEntries);
+    }
+
+    private static boolean affects(Key key, Entry entry, Product product) {
+        return switch (key.scope()) {
+            case PAGE -> true;
+            case CATEGORY -> key.value().equals(product.getCategory()) || entry.contains(product.getId());
+            case ACTIVE -> Boolean.TRUE.equals(product.getIsActive()) || entry.contains(product.getId());
+        };
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,102 @@
+package com.productcatalog.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows latency, after TCP Vegas. The lowest latency seen is taken
+ * as the no-load baseline; the ratio of baseline to each new sample estimates how many of
+ * the requests in flight are queueing rather than being worked on. A short queue grows the
+ * limit, a long one (or a failed request) shrinks it. The baseline is re-probed periodically
+ * so it can move with the data and the host.
+ */
+public class AdaptiveConcurrencyLimit {
+    
+    private static final double SMOOTHING = 0.2;
+    // Samples between baseline probes, per 10 units of limit
+    private static final long PROBE_SAMPLES = 1000;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private volatile int limit;
+    // Guarded by this
+    private double estimatedLimit;
+    private long noLoadRttNanos;
+    private long samplesSinceProbe;
+    
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+    
+    /** Takes a slot if one is free; never waits. */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /** Frees the slot and feeds the request's latency back; failed requests always count against the limit. */
+    public void release(long rttNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        update(rttNanos, current, failed);
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    /** True when every slot is taken, i.e. the next request for this class would be rejected. */
+    public boolean isSaturated() {
+        return inFlight.get() >= limit;
+    }
+    
+    private synchronized void update(long rttNanos, int inFlightAtCompletion, boolean failed) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (++samplesSinceProbe >= PROBE_SAMPLES * Math.max(1, (long) estimatedLimit / 10)) {
+            samplesSinceProbe = 0;
+            noLoadRttNanos = 0;
+        }
+        if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos) {
+            noLoadRttNanos = rttNanos;
+            return;
+        }
+        double step = Math.max(1.0, Math.log10(estimatedLimit));
+        double target;
+        if (failed) {
+            target = estimatedLimit - step;
+        } else if (inFlightAtCompletion * 2 < estimatedLimit) {
+            // Too little traffic to say anything about the limit
+            return;
+        } else {
+            double queue = estimatedLimit * (1.0 - (double) noLoadRttNanos / rttNanos);
+            if (queue <= step) {
+                target = estimatedLimit + 6 * step;
+            } else if (queue < 3 * step) {
+                target = estimatedLimit + step;
+            } else if (queue > 6 * step) {
+                target = estimatedLimit - step;
+            } else {
+                return;
+            }
+        }
+        target = Math.max(minLimit, Math.min(maxLimit, target));
+        estimatedLimit = (1 - SMOOTHING) * estimatedLimit + SMOOTHING * target;
+        limit = Math.max(minLimit, (int) Math.round(estimatedLimit));
+    }
+}
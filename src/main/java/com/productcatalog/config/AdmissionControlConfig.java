@@ -0,0 +1,64 @@
+package com.productcatalog.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Active when catalog.admission.enabled=true. Runs ahead of the virtual-thread concurrency
+ * limit, so a rejected request never takes one of its permits.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.admission.enabled", havingValue = "true")
+public class AdmissionControlConfig {
+    
+    @Bean
+    public AdmissionControlFilter admissionControlFilter(
+            @Value("${catalog.admission.initial-limit:20}") int initialLimit,
+            @Value("${catalog.admission.min-limit:2}") int minLimit,
+            @Value("${catalog.admission.max-limit:200}") int maxLimit,
+            @Value("${catalog.admission.retry-after:1s}") Duration retryAfter,
+            ObjectMapper objectMapper) {
+        return new AdmissionControlFilter(initialLimit, minLimit, maxLimit, retryAfter, objectMapper);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilterRegistration(AdmissionControlFilter filter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+    
+    @Bean
+    public MeterBinder admissionControlMetrics(AdmissionControlFilter filter) {
+        return registry -> {
+            for (AdmissionControlFilter.EndpointClass endpointClass : AdmissionControlFilter.EndpointClass.values()) {
+                String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+                AdaptiveConcurrencyLimit limit = filter.limit(endpointClass);
+                Gauge.builder("catalog.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                        .tag("class", tag)
+                        .register(registry);
+                Gauge.builder("catalog.admission.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                        .tag("class", tag)
+                        .register(registry);
+                FunctionCounter.builder("catalog.admission.rejected", filter, f -> f.rejected(endpointClass))
+                        .tag("class", tag)
+                        .register(registry);
+                FunctionCounter.builder("catalog.admission.shed", filter, f -> f.shed(endpointClass))
+                        .tag("class", tag)
+                        .register(registry);
+            }
+        };
+    }
+}
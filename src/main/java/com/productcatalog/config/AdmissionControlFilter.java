@@ -0,0 +1,189 @@
+package com.productcatalog.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productcatalog.dto.ApiResponse;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint-class admission control. Each class has its own latency-driven concurrency
+ * limit, and a request over its class limit is rejected at once with 429 instead of queueing
+ * on the Tomcat and connection pools. Classes are also ranked: while a higher-ranked class is
+ * at its limit, lower-ranked requests are shed with 503, so expensive scans give way to
+ * detail lookups and writes first. Long-poll and SSE stock-watch events are not limited.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    
+    public enum EndpointClass {
+        DETAIL(0), WRITE(0), LIST(1), EXPENSIVE(2);
+        
+        private final int rank;
+        
+        EndpointClass(int rank) {
+            this.rank = rank;
+        }
+    }
+    
+    private static final String API_PREFIX = "/api/products";
+    
+    private final Map<EndpointClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, LongAdder> rejected = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, LongAdder> shed = new EnumMap<>(EndpointClass.class);
+    private final String retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    
+    public AdmissionControlFilter(int initialLimit, int minLimit, int maxLimit, Duration retryAfter, ObjectMapper objectMapper) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            limits.put(endpointClass, new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit));
+            rejected.put(endpointClass, new LongAdder());
+            shed.put(endpointClass, new LongAdder());
+        }
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request.getMethod(),
+                request.getRequestURI().substring(request.getContextPath().length()));
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (higherRankSaturated(endpointClass)) {
+            shed.get(endpointClass).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please retry");
+            return;
+        }
+        AdaptiveConcurrencyLimit limit = limits.get(endpointClass);
+        if (!limit.tryAcquire()) {
+            rejected.get(endpointClass).increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many concurrent requests, please retry");
+            return;
+        }
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limit.release(System.nanoTime() - start, response.getStatus() >= 500);
+            }
+        };
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                async = true;
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            }
+        } catch (IOException | ServletException | RuntimeException e) {
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            throw e;
+        } finally {
+            if (!async) {
+                release.run();
+            }
+        }
+    }
+    
+    /** The class of a request path below the context path, or null for requests that are not limited. */
+    static EndpointClass classify(String method, String path) {
+        if (!path.startsWith(API_PREFIX)) {
+            return null;
+        }
+        String rest = path.substring(API_PREFIX.length());
+        if (rest.endsWith("/")) {
+            rest = rest.substring(0, rest.length() - 1);
+        }
+        if (rest.equals("/stock-watches/events")) {
+            return null;
+        }
+        if (rest.equals("/bulk")) {
+            return EndpointClass.EXPENSIVE;
+        }
+        if (rest.equals("/batch")) {
+            return EndpointClass.DETAIL;
+        }
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return EndpointClass.WRITE;
+        }
+        // Unpaged list, NDJSON export and full-text search
+        if (rest.isEmpty() || rest.equals("/search")) {
+            return EndpointClass.EXPENSIVE;
+        }
+        String first = rest.indexOf('/', 1) > 0 ? rest.substring(0, rest.indexOf('/', 1)) : rest;
+        return switch (first) {
+            case "/sku", "/validate-sku", "/cache" -> EndpointClass.DETAIL;
+            case "/page", "/filter", "/category", "/active", "/price-range", "/in-stock", "/low-stock",
+                 "/facets", "/changes", "/stock-watches" -> EndpointClass.LIST;
+            default -> EndpointClass.DETAIL;
+        };
+    }
+    
+    public AdaptiveConcurrencyLimit limit(EndpointClass endpointClass) {
+        return limits.get(endpointClass);
+    }
+    
+    public long rejected(EndpointClass endpointClass) {
+        return rejected.get(endpointClass).sum();
+    }
+    
+    public long shed(EndpointClass endpointClass) {
+        return shed.get(endpointClass).sum();
+    }
+    
+    private boolean higherRankSaturated(EndpointClass endpointClass) {
+        for (EndpointClass other : EndpointClass.values()) {
+            if (other.rank < endpointClass.rank && limits.get(other).isSaturated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+    
+    private record ReleasingListener(Runnable release) implements AsyncListener {
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.productcatalog.config;
+
+import com.productcatalog.cache.ProductCache;
+import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Startup warm-up. Spring Boot reports readiness only after ApplicationReadyEvent listeners
+ * return, so everything done here happens before the readiness probe turns green: the most
+ * recently updated products are loaded into the cache, and the hot read endpoints are
+ * replayed over HTTP so the JIT, Jackson and the connection pool are warm for real traffic.
+ */
+@Component
+public class CatalogWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogWarmup.class);
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final boolean enabled;
+    private final int iterations;
+    private final int cacheProducts;
+    private final Duration maxDuration;
+    private final String contextPath;
+
+    public CatalogWarmup(ProductRepository productRepository, ProductCache productCache,
+                         @Value("${catalog.warmup.enabled:false}") boolean enabled,
+                         @Value("${catalog.warmup.iterations:200}") int iterations,
+                         @Value("${catalog.warmup.cache-products:1000}") int cacheProducts,
+                         @Value("${catalog.warmup.max-duration:60s}") Duration maxDuration,
+                         @Value("${server.servlet.context-path:}") String contextPath) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.cacheProducts = cacheProducts;
+        this.maxDuration = maxDuration;
+        this.contextPath = contextPath;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        long loadedAt = productCache.generation();
+        List<Product> recent = cacheProducts > 0
+                ? productRepository.findAllByOrderByUpdatedAtDesc(Limit.of(cacheProducts))
+                : List.of();
+        recent.forEach(product -> productCache.put(product, loadedAt));
+
+        int requests = 0;
+        int failures = 0;
+        if (event.getApplicationContext() instanceof WebServerApplicationContext web && web.getWebServer().getPort() > 0) {
+            String baseUrl = "http://localhost:" + web.getWebServer().getPort() + contextPath + "/api/products";
+            List<URI> uris = hotRequests(baseUrl, recent);
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+            for (int i = 0; i < iterations && System.nanoTime() - deadline < 0; i++) {
+                for (URI uri : uris) {
+                    requests++;
+                    try {
+                        HttpResponse<Void> response = client.send(
+                                HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10)).GET().build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 500) {
+                            failures++;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        failures++;
+                    }
+                }
+            }
+        }
+        log.info("Warm-up finished in {} ms: {} products cached, {} requests replayed ({} failed)",
+                (System.nanoTime() - start) / 1_000_000, recent.size(), requests, failures);
+    }
+
+    // Bounded, read-only requests only; unpaged full-catalog lists are left out on purpose
+    private static List<URI> hotRequests(String baseUrl, List<Product> recent) {
+        List<String> paths = new ArrayList<>();
+        paths.add("/page?size=20");
+        paths.add("/page?mode=keyset&size=20");
+        paths.add("/facets");
+        if (!recent.isEmpty()) {
+            Product sample = recent.get(0);
+            paths.add("/" + sample.getId());
+            if (sample.getSku() != null) {
+                paths.add("/sku/" + encode(sample.getSku()));
+            }
+            paths.add("/search?limit=20&keyword=" + encode(sample.getName()));
+            paths.add("/price-range?fields=summary&minPrice=" + sample.getPrice() + "&maxPrice=" + sample.getPrice());
+            paths.add("/filter?active=true&size=20&category=" + encode(sample.getCategory()));
+            paths.add("/batch?ids=" + recent.stream().limit(50).map(p -> String.valueOf(p.getId())).collect(Collectors.joining(",")));
+        }
+        List<URI> uris = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            uris.add(URI.create(baseUrl + path));
+        }
+        return uris;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
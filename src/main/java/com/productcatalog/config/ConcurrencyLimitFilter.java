@@ -0,0 +1,63 @@
+package com.productcatalog.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productcatalog.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests in flight. With virtual threads there is no Tomcat pool to
+ * bound concurrency, so without this every request would queue on the connection pool.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final ObjectMapper objectMapper;
+    
+    public ConcurrencyLimitFilter(int maxConcurrentRequests, Duration acquireTimeout, ObjectMapper objectMapper) {
+        // Fair, so waiting requests get permits in arrival order rather than by barging
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Server is busy, please retry"));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+    
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
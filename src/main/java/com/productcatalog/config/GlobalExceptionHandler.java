@@ -3,14 +3,21 @@ package com.productcatalog.config;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.productcatalog.dto.ApiResponse;
+import com.productcatalog.service.ChangeLogExpiredException;
+import com.productcatalog.service.InsufficientStockException;
+import com.productcatalog.service.StaleProductException;
+import com.productcatalog.service.StockEventsExpiredException;
+import com.productcatalog.service.StockLockTimeoutException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -35,6 +42,43 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage()));
     }
     
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInsufficientStockException(InsufficientStockException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(StaleProductException.class)
+    public ResponseEntity<ApiResponse<Void>> handleStaleProductException(StaleProductException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(ChangeLogExpiredException.class)
+    public ResponseEntity<ApiResponse<Void>> handleChangeLogExpiredException(ChangeLogExpiredException ex) {
+        return ResponseEntity.status(HttpStatus.GONE)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(StockEventsExpiredException.class)
+    public ResponseEntity<ApiResponse<Void>> handleStockEventsExpiredException(StockEventsExpiredException ex) {
+        return ResponseEntity.status(HttpStatus.GONE)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(StockLockTimeoutException.class)
+    public ResponseEntity<ApiResponse<Void>> handleStockLockTimeoutException(StockLockTimeoutException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("The product was modified concurrently, please retry"));
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> handleGlobalException(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,62 @@
+package com.productcatalog.config;
+
+import com.productcatalog.cache.ProductCache;
+import com.productcatalog.cache.ResponseCache;
+import com.productcatalog.service.ProductWriteBehind;
+import com.productcatalog.service.ReadCoalescer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public MeterBinder productCacheMetrics(ProductCache productCache) {
+        return registry -> {
+            FunctionCounter.builder("catalog.cache.hits", productCache, cache -> cache.stats().hits())
+                    .register(registry);
+            FunctionCounter.builder("catalog.cache.misses", productCache, cache -> cache.stats().misses())
+                    .register(registry);
+            FunctionCounter.builder("catalog.cache.evictions", productCache, cache -> cache.stats().evictions())
+                    .register(registry);
+            Gauge.builder("catalog.cache.size", productCache, cache -> cache.stats().size())
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder responseCacheMetrics(ResponseCache responseCache) {
+        return registry -> {
+            FunctionCounter.builder("catalog.response-cache.hits", responseCache, cache -> cache.stats().hits())
+                    .register(registry);
+            FunctionCounter.builder("catalog.response-cache.misses", responseCache, cache -> cache.stats().misses())
+                    .register(registry);
+            Gauge.builder("catalog.response-cache.size", responseCache, cache -> cache.stats().size())
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder readCoalescerMetrics(ReadCoalescer readCoalescer) {
+        return registry -> {
+            for (ReadCoalescer.Operation operation : ReadCoalescer.Operation.values()) {
+                String tag = operation.name().toLowerCase();
+                FunctionCounter.builder("catalog.coalescing.calls", readCoalescer, coalescer -> coalescer.calls(operation))
+                        .tag("operation", tag)
+                        .register(registry);
+                FunctionCounter.builder("catalog.coalescing.collapsed", readCoalescer, coalescer -> coalescer.collapsed(operation))
+                        .tag("operation", tag)
+                        .register(registry);
+            }
+        };
+    }
+    
+    @Bean
+    public MeterBinder writeBehindMetrics(ProductWriteBehind writeBehind) {
+        return registry -> Gauge.builder("catalog.write-behind.pending", writeBehind, ProductWriteBehind::pendingCount)
+                .register(registry);
+    }
+}
@@ -0,0 +1,82 @@
+package com.productcatalog.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records a latency histogram and a returned-row count for every repository method.
+ * Streaming methods are timed up to the point the cursor is opened.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> rowCounts = new ConcurrentHashMap<>();
+    
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Around("execution(* com.productcatalog.repository..*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean failed = false;
+        try {
+            Object result = joinPoint.proceed();
+            int rows = rowCount(result);
+            if (rows >= 0) {
+                rowCounts.computeIfAbsent(method, this::rowSummary).record(rows);
+            }
+            return result;
+        } catch (Throwable e) {
+            failed = true;
+            throw e;
+        } finally {
+            String outcome = failed ? "error" : "success";
+            sample.stop(timers.computeIfAbsent(method + ":" + outcome, key -> queryTimer(method, outcome)));
+        }
+    }
+    
+    private Timer queryTimer(String method, String outcome) {
+        return Timer.builder("catalog.repository.query")
+                .description("Repository method latency")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    private DistributionSummary rowSummary(String method) {
+        return DistributionSummary.builder("catalog.repository.rows")
+                .description("Rows returned per repository call")
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+    
+    private static int rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+}
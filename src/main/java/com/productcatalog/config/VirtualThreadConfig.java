@@ -0,0 +1,35 @@
+package com.productcatalog.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Active when spring.threads.virtual.enabled=true. Spring Boot then runs Tomcat requests,
+ * and the @Transactional service calls made on them, on virtual threads; this adds the
+ * backpressure that the platform thread pool used to provide. The limit defaults to the
+ * connection pool size, so requests queue here rather than on Hikari's acquire timeout.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${catalog.virtual-threads.max-concurrent-requests:${spring.datasource.hikari.maximum-pool-size:10}}")
+            int maxConcurrentRequests,
+            @Value("${catalog.virtual-threads.acquire-timeout:500ms}") Duration acquireTimeout,
+            ObjectMapper objectMapper) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(maxConcurrentRequests, acquireTimeout, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
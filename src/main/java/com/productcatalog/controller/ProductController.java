@@ -1,30 +1,86 @@
 package com.productcatalog.controller;
 
+import com.productcatalog.cache.CacheStats;
+import com.productcatalog.cache.ResponseCache;
 import com.productcatalog.dto.ApiResponse;
+import com.productcatalog.dto.BulkOperationResult;
+import com.productcatalog.dto.ChangeFeed;
+import com.productcatalog.dto.KeysetPage;
+import com.productcatalog.dto.ProductBatchRequest;
+import com.productcatalog.dto.ProductBatchResult;
+import com.productcatalog.dto.ProductFacets;
+import com.productcatalog.dto.ProductFilter;
 import com.productcatalog.dto.ProductDTO;
+import com.productcatalog.dto.StockCrossingFeed;
+import com.productcatalog.dto.StockReservationItem;
+import com.productcatalog.dto.StockWatch;
 import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductFields;
+import com.productcatalog.search.SearchOperator;
+import com.productcatalog.service.ChangeLogExpiredException;
+import com.productcatalog.service.InsufficientStockException;
+import com.productcatalog.service.ProductNotFoundException;
 import com.productcatalog.service.ProductService;
+import com.productcatalog.service.ProductSortField;
+import com.productcatalog.service.StaleProductException;
+import com.productcatalog.service.StockEventsExpiredException;
+import com.productcatalog.service.StockLockTimeoutException;
+import com.productcatalog.service.StockWatchRegistry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/products")
 @CrossOrigin(origins = "*")
 public class ProductController {
     
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private StockWatchRegistry stockWatches;
+    
+    @Autowired
+    private ResponseCache responseCache;
+    
+    @Value("${catalog.response-cache.max-pages:5}")
+    private int cachedPages;
+    
     @PostMapping
     public ResponseEntity<ApiResponse<Product>> createProduct(@Valid @RequestBody ProductDTO productDTO) {
         try {
@@ -40,28 +96,92 @@ public class ProductController {
         }
     }
     
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkOperationResult>> bulkSaveProducts(
+            @RequestBody List<ProductDTO> productDTOs,
+            @RequestParam(defaultValue = "false") boolean upsert) {
+        try {
+            BulkOperationResult result = productService.bulkSaveProducts(productDTOs, upsert);
+            return ResponseEntity.ok(ApiResponse.success(result, "Bulk operation completed"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error processing bulk operation: " + e.getMessage()));
+        }
+    }
+    
     @GetMapping
     public ResponseEntity<ApiResponse<List<Product>>> getAllProducts() {
         try {
             List<Product> products = productService.getAllProducts();
+            return ResponseEntity.ok()
+                    .eTag(ProductETags.ofList(products))
+                    .body(ApiResponse.success(products, "Products retrieved successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving products: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping(params = "fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllProducts(@RequestParam String fields) {
+        try {
+            List<Map<String, Object>> products = productService.getAllProducts(ProductFields.parse(fields));
             return ResponseEntity.ok(ApiResponse.success(products, "Products retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error retrieving products: " + e.getMessage()));
         }
     }
     
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                 SequenceWriter writer = objectMapper.writerFor(Product.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(generator)) {
+                productService.streamAllProducts(product -> {
+                    try {
+                        writer.write(product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            outputStream.write('\n');
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
     @GetMapping("/page")
-    public ResponseEntity<ApiResponse<Page<Product>>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
             Sort.Direction direction = sortDirection.equalsIgnoreCase("desc") ? 
                     Sort.Direction.DESC : Sort.Direction.ASC;
-            Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+            Sort sort = Sort.by(direction, sortBy);
+            if (!"id".equals(sortBy)) {
+                sort = sort.and(Sort.by(direction, "id"));
+            }
+            Pageable pageable = PageRequest.of(page, size, sort);
             
+            if (page < cachedPages && acceptsCachedJson(accept)) {
+                ResponseCache.Key key = new ResponseCache.Key(ResponseCache.Scope.PAGE, page + ":" + size + ":" + sort);
+                return cachedJson(key, acceptEncoding, () -> productService.getAllProducts(pageable),
+                        Page::getContent, null, "Products retrieved successfully");
+            }
             Page<Product> products = productService.getAllProducts(pageable);
             return ResponseEntity.ok(ApiResponse.success(products, "Products retrieved successfully"));
         } catch (Exception e) {
@@ -70,12 +190,60 @@ public class ProductController {
         }
     }
     
+    @GetMapping("/filter")
+    public ResponseEntity<ApiResponse<Page<Product>>> filterProducts(
+            ProductFilter filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection) {
+        try {
+            Sort.Direction direction = sortDirection.equalsIgnoreCase("desc") ?
+                    Sort.Direction.DESC : Sort.Direction.ASC;
+            Sort sort = Sort.by(direction, ProductSortField.fromProperty(sortBy).getProperty());
+            if (!"id".equals(sortBy)) {
+                sort = sort.and(Sort.by(direction, "id"));
+            }
+            Page<Product> products = productService.filterProducts(filter, PageRequest.of(page, size, sort));
+            return ResponseEntity.ok(ApiResponse.success(products, "Products retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error filtering products: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping(value = "/page", params = "mode=keyset")
+    public ResponseEntity<ApiResponse<KeysetPage<Product>>> getProductsByKeyset(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean includeCount) {
+        try {
+            Sort.Direction direction = sortDirection.equalsIgnoreCase("desc") ? 
+                    Sort.Direction.DESC : Sort.Direction.ASC;
+            KeysetPage<Product> products = productService.getProductsAfter(cursor, size, sortBy, direction, includeCount);
+            return ResponseEntity.ok(ApiResponse.success(products, "Products retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving products: " + e.getMessage()));
+        }
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<Product>> getProductById(@PathVariable Long id) {
         try {
             Optional<Product> product = productService.getProductById(id);
             if (product.isPresent()) {
-                return ResponseEntity.ok(ApiResponse.success(product.get(), "Product retrieved successfully"));
+                return ResponseEntity.ok()
+                        .eTag(ProductETags.of(product.get()))
+                        .body(ApiResponse.success(product.get(), "Product retrieved successfully"));
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(ApiResponse.error("Product not found with id: " + id));
@@ -91,7 +259,9 @@ public class ProductController {
         try {
             Optional<Product> product = productService.getProductBySku(sku);
             if (product.isPresent()) {
-                return ResponseEntity.ok(ApiResponse.success(product.get(), "Product retrieved successfully"));
+                return ResponseEntity.ok()
+                        .eTag(ProductETags.of(product.get()))
+                        .body(ApiResponse.success(product.get(), "Product retrieved successfully"));
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(ApiResponse.error("Product not found with SKU: " + sku));
@@ -102,11 +272,67 @@ public class ProductController {
         }
     }
     
+    @GetMapping("/batch")
+    public ResponseEntity<ApiResponse<ProductBatchResult>> getProducts(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) List<String> skus) {
+        try {
+            ProductBatchResult result = productService.getProducts(ids, skus);
+            return ResponseEntity.ok(ApiResponse.success(result, "Products retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving products: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<ProductBatchResult>> getProducts(@RequestBody ProductBatchRequest request) {
+        try {
+            ProductBatchResult result = productService.getProducts(request.getIds(), request.getSkus());
+            return ResponseEntity.ok(ApiResponse.success(result, "Products retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving products: " + e.getMessage()));
+        }
+    }
+    
     @GetMapping("/category/{category}")
-    public ResponseEntity<ApiResponse<List<Product>>> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<?> getProductsByCategory(
+            @PathVariable String category,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
+            if (acceptsCachedJson(accept)) {
+                return cachedJson(new ResponseCache.Key(ResponseCache.Scope.CATEGORY, category), acceptEncoding,
+                        () -> productService.getProductsByCategory(category), products -> products,
+                        ProductETags::ofList, "Products retrieved successfully");
+            }
             List<Product> products = productService.getProductsByCategory(category);
+            return ResponseEntity.ok()
+                    .eTag(ProductETags.ofList(products))
+                    .body(ApiResponse.success(products, "Products retrieved successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving products: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping(value = "/category/{category}", params = "fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam String fields) {
+        try {
+            List<Map<String, Object>> products = productService.getProductsByCategory(category, ProductFields.parse(fields));
             return ResponseEntity.ok(ApiResponse.success(products, "Products retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error retrieving products: " + e.getMessage()));
@@ -114,10 +340,33 @@ public class ProductController {
     }
     
     @GetMapping("/active")
-    public ResponseEntity<ApiResponse<List<Product>>> getActiveProducts() {
+    public ResponseEntity<?> getActiveProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
+            if (acceptsCachedJson(accept)) {
+                return cachedJson(new ResponseCache.Key(ResponseCache.Scope.ACTIVE, ""), acceptEncoding,
+                        productService::getActiveProducts, products -> products,
+                        ProductETags::ofList, "Active products retrieved successfully");
+            }
             List<Product> products = productService.getActiveProducts();
+            return ResponseEntity.ok()
+                    .eTag(ProductETags.ofList(products))
+                    .body(ApiResponse.success(products, "Active products retrieved successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving active products: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping(value = "/active", params = "fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getActiveProducts(@RequestParam String fields) {
+        try {
+            List<Map<String, Object>> products = productService.getActiveProducts(ProductFields.parse(fields));
             return ResponseEntity.ok(ApiResponse.success(products, "Active products retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error retrieving active products: " + e.getMessage()));
@@ -125,10 +374,37 @@ public class ProductController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<Product>>> searchProducts(@RequestParam String keyword) {
+    public ResponseEntity<ApiResponse<List<Product>>> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "AND") String operator,
+            @RequestParam(defaultValue = "0") int limit) {
+        try {
+            List<Product> products = productService.searchProducts(keyword, SearchOperator.from(operator), limit);
+            return ResponseEntity.ok()
+                    .eTag(ProductETags.ofList(products))
+                    .body(ApiResponse.success(products, "Search results retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error searching products: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping(value = "/search", params = "fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "AND") String operator,
+            @RequestParam(defaultValue = "0") int limit,
+            @RequestParam String fields) {
         try {
-            List<Product> products = productService.searchProducts(keyword);
+            List<Map<String, Object>> products = productService.searchProducts(
+                    keyword, SearchOperator.from(operator), limit, ProductFields.parse(fields));
             return ResponseEntity.ok(ApiResponse.success(products, "Search results retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error searching products: " + e.getMessage()));
@@ -137,10 +413,82 @@ public class ProductController {
     
     @GetMapping("/price-range")
     public ResponseEntity<ApiResponse<List<Product>>> getProductsByPriceRange(
-            @RequestParam Double minPrice,
-            @RequestParam Double maxPrice) {
+            @RequestParam BigDecimal minPrice,
+            @RequestParam BigDecimal maxPrice,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "false") boolean activeOnly) {
+        try {
+            List<Product> products = productService.getProductsByPriceRange(minPrice, maxPrice, category, activeOnly);
+            return ResponseEntity.ok()
+                    .eTag(ProductETags.ofList(products))
+                    .body(ApiResponse.success(products, "Products retrieved successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving products: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping(value = "/price-range", params = "fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getProductsByPriceRange(
+            @RequestParam BigDecimal minPrice,
+            @RequestParam BigDecimal maxPrice,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "false") boolean activeOnly,
+            @RequestParam String fields) {
+        try {
+            List<Map<String, Object>> products = productService.getProductsByPriceRange(
+                    minPrice, maxPrice, category, activeOnly, ProductFields.parse(fields));
+            return ResponseEntity.ok(ApiResponse.success(products, "Products retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving products: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse<ProductFacets>> getFacets(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "AND") String operator) {
         try {
-            List<Product> products = productService.getProductsByPriceRange(minPrice, maxPrice);
+            ProductFacets facets = productService.getFacets(minPrice, maxPrice, keyword, SearchOperator.from(operator));
+            return ResponseEntity.ok(ApiResponse.success(facets, "Facets retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving facets: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<ChangeFeed>> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        try {
+            ChangeFeed feed = productService.getChanges(since, limit);
+            return ResponseEntity.ok(ApiResponse.success(feed, "Changes retrieved successfully"));
+        } catch (ChangeLogExpiredException e) {
+            return ResponseEntity.status(HttpStatus.GONE)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving changes: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/in-stock")
+    public ResponseEntity<ApiResponse<List<Product>>> getProductsWithMinimumStock(@RequestParam Integer minStock) {
+        try {
+            List<Product> products = productService.getProductsWithMinimumStock(minStock);
             return ResponseEntity.ok(ApiResponse.success(products, "Products retrieved successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -148,13 +496,132 @@ public class ProductController {
         }
     }
     
+    @GetMapping("/low-stock")
+    public ResponseEntity<ApiResponse<List<Product>>> getLowStockProducts(
+            @RequestParam Integer maxStock,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String sku) {
+        try {
+            List<Product> products = productService.getLowStockProducts(maxStock, category, sku);
+            return ResponseEntity.ok(ApiResponse.success(products, "Low stock products retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving low stock products: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/stock-watches")
+    public ResponseEntity<ApiResponse<StockWatch>> registerStockWatch(@RequestBody StockWatch request) {
+        try {
+            StockWatch watch = stockWatches.register(request);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success(watch, "Stock watch registered successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error registering stock watch: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/stock-watches")
+    public ResponseEntity<ApiResponse<List<StockWatch>>> getStockWatches() {
+        return ResponseEntity.ok(ApiResponse.success(stockWatches.list(), "Stock watches retrieved successfully"));
+    }
+    
+    @GetMapping("/stock-watches/{watchId}")
+    public ResponseEntity<ApiResponse<StockWatch>> getStockWatch(@PathVariable Long watchId) {
+        Optional<StockWatch> watch = stockWatches.get(watchId);
+        if (watch.isPresent()) {
+            return ResponseEntity.ok(ApiResponse.success(watch.get(), "Stock watch found"));
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("Stock watch not found with id: " + watchId));
+    }
+    
+    @DeleteMapping("/stock-watches/{watchId}")
+    public ResponseEntity<ApiResponse<Void>> removeStockWatch(@PathVariable Long watchId) {
+        if (stockWatches.remove(watchId)) {
+            return ResponseEntity.ok(ApiResponse.success(null, "Stock watch removed successfully"));
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("Stock watch not found with id: " + watchId));
+    }
+    
+    // Current state for a watch: products at or below its threshold right now
+    @GetMapping("/stock-watches/{watchId}/products")
+    public ResponseEntity<ApiResponse<List<Product>>> getStockWatchProducts(@PathVariable Long watchId) {
+        try {
+            Optional<StockWatch> watch = stockWatches.get(watchId);
+            if (watch.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Stock watch not found with id: " + watchId));
+            }
+            List<Product> products = productService.getLowStockProducts(
+                    watch.get().getThreshold(), watch.get().getCategory(), watch.get().getSku());
+            return ResponseEntity.ok(ApiResponse.success(products, "Low stock products retrieved successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving low stock products: " + e.getMessage()));
+        }
+    }
+    
+    // Long poll: answers as soon as a crossing after the cursor exists, or with no events after the timeout
+    @GetMapping("/stock-watches/events")
+    public DeferredResult<ResponseEntity<ApiResponse<StockCrossingFeed>>> pollStockCrossings(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Long watchId,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(name = "wait", defaultValue = "30") int waitSeconds) {
+        try {
+            return stockWatches.poll(after, watchId, limit, Duration.ofSeconds(waitSeconds),
+                    feed -> ResponseEntity.ok(ApiResponse.success(feed, "Stock events retrieved successfully")));
+        } catch (StockEventsExpiredException e) {
+            return completed(ResponseEntity.status(HttpStatus.GONE)
+                    .body(ApiResponse.error(e.getMessage())));
+        } catch (IllegalArgumentException e) {
+            return completed(ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage())));
+        } catch (Exception e) {
+            return completed(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error retrieving stock events: " + e.getMessage())));
+        }
+    }
+    
+    // Errors are status-only: an event-stream client cannot accept a JSON body, and any non-200 stops EventSource reconnects
+    @GetMapping(value = "/stock-watches/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStockCrossings(
+            @RequestParam(required = false) Long watchId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        try {
+            return ResponseEntity.ok(stockWatches.subscribe(watchId, lastEventId));
+        } catch (StockEventsExpiredException e) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<Product>> updateProduct(
             @PathVariable Long id, 
-            @Valid @RequestBody ProductDTO productDTO) {
+            @Valid @RequestBody ProductDTO productDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Product updatedProduct = productService.updateProduct(id, productDTO);
-            return ResponseEntity.ok(ApiResponse.success(updatedProduct, "Product updated successfully"));
+            Product updatedProduct = productService.updateProduct(id, productDTO, ProductETags.expectedVersion(ifMatch, id));
+            return ResponseEntity.ok()
+                    .eTag(ProductETags.of(updatedProduct))
+                    .body(ApiResponse.success(updatedProduct, "Product updated successfully"));
+        } catch (StaleProductException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Product " + id + " was modified concurrently, please retry"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
@@ -171,15 +638,87 @@ public class ProductController {
         try {
             Product updatedProduct = productService.updateProductStock(id, stock);
             return ResponseEntity.ok(ApiResponse.success(updatedProduct, "Product stock updated successfully"));
-        } catch (IllegalArgumentException e) {
+        } catch (ProductNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (StockLockTimeoutException e) {
+            return stockLockTimeout(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error updating product stock: " + e.getMessage()));
         }
     }
     
+    @PatchMapping("/{id}/stock/decrement")
+    public ResponseEntity<ApiResponse<Product>> decrementStock(
+            @PathVariable Long id,
+            @RequestParam int quantity) {
+        try {
+            Product updatedProduct = productService.decrementStock(id, quantity);
+            return ResponseEntity.ok(ApiResponse.success(updatedProduct, "Product stock decremented successfully"));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (ProductNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (StockLockTimeoutException e) {
+            return stockLockTimeout(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error decrementing product stock: " + e.getMessage()));
+        }
+    }
+    
+    @PatchMapping("/{id}/stock/increment")
+    public ResponseEntity<ApiResponse<Product>> incrementStock(
+            @PathVariable Long id,
+            @RequestParam int quantity) {
+        try {
+            Product updatedProduct = productService.incrementStock(id, quantity);
+            return ResponseEntity.ok(ApiResponse.success(updatedProduct, "Product stock incremented successfully"));
+        } catch (ProductNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (StockLockTimeoutException e) {
+            return stockLockTimeout(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error incrementing product stock: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/stock/reservations")
+    public ResponseEntity<ApiResponse<List<Product>>> reserveStock(@RequestBody List<StockReservationItem> items) {
+        try {
+            List<Product> reservedProducts = productService.reserveStock(items);
+            return ResponseEntity.ok(ApiResponse.success(reservedProducts, "Stock reserved successfully"));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (ProductNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (StockLockTimeoutException e) {
+            return stockLockTimeout(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error reserving stock: " + e.getMessage()));
+        }
+    }
+    
     @PatchMapping("/{id}/activate")
     public ResponseEntity<ApiResponse<Product>> activateProduct(@PathVariable Long id) {
         try {
@@ -188,6 +727,8 @@ public class ProductController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
+        } catch (StockLockTimeoutException e) {
+            return stockLockTimeout(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error activating product: " + e.getMessage()));
@@ -202,6 +743,8 @@ public class ProductController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
+        } catch (StockLockTimeoutException e) {
+            return stockLockTimeout(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error deactivating product: " + e.getMessage()));
@@ -209,10 +752,18 @@ public class ProductController {
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> deleteProduct(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<Void>> deleteProduct(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            productService.deleteProduct(id);
+            productService.deleteProduct(id, ProductETags.expectedVersion(ifMatch, id));
             return ResponseEntity.ok(ApiResponse.success(null, "Product deleted successfully"));
+        } catch (StaleProductException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Product " + id + " was modified concurrently, please retry"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
@@ -239,4 +790,69 @@ public class ProductController {
                     .body(ApiResponse.error("Error validating SKU: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse<CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(productService.getCacheStats(), "Cache statistics retrieved successfully"));
+    }
+    
+    /**
+     * Answers from the response cache, loading and serializing on a miss. The stored array is
+     * written as-is: gzip-compressed when the client accepts it, otherwise the plain JSON.
+     */
+    private <T> ResponseEntity<byte[]> cachedJson(ResponseCache.Key key, String acceptEncoding, Supplier<T> loader,
+                                                  Function<T, List<Product>> products, Function<List<Product>, String> eTag,
+                                                  String message) throws IOException {
+        long generation = responseCache.generation();
+        ResponseCache.Entry entry = responseCache.get(key);
+        if (entry == null) {
+            T data = loader.get();
+            List<Product> content = products.apply(data);
+            byte[] body = objectMapper.writeValueAsBytes(ApiResponse.success(data, message));
+            entry = responseCache.put(key, body, eTag != null ? eTag.apply(content) : null, content, generation);
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (entry.eTag() != null) {
+            response.eTag(entry.eTag());
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? entry.gzipped() : entry.body());
+    }
+    
+    // CBOR and Smile callers are served by the message converters as before
+    private boolean acceptsCachedJson(String accept) {
+        if (!responseCache.isEnabled()) {
+            return false;
+        }
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return types.stream().anyMatch(type -> type.includes(MediaType.APPLICATION_JSON))
+                && types.stream().noneMatch(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)
+                        || type.equalsTypeAndSubtype(SMILE));
+    }
+    
+    // lock contention is transient, so tell the caller to come back rather than fail the write
+    private static <T> ResponseEntity<ApiResponse<T>> stockLockTimeout(StockLockTimeoutException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error(e.getMessage()));
+    }
+    
+    private static <T> DeferredResult<T> completed(T result) {
+        DeferredResult<T> deferred = new DeferredResult<>();
+        deferred.setResult(result);
+        return deferred;
+    }
+}
@@ -0,0 +1,66 @@
+package com.productcatalog.controller;
+
+import com.productcatalog.entity.Product;
+
+import java.util.Collection;
+
+/**
+ * Strong entity tags derived from product ids and versions. Spring answers a matching
+ * If-None-Match with 304 once the tag is set on the ResponseEntity.
+ */
+final class ProductETags {
+    
+    // Never equals a real version, so a malformed or foreign If-Match always fails
+    private static final long UNMATCHABLE_VERSION = -1L;
+    
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private ProductETags() {
+    }
+    
+    static String of(Product product) {
+        return "\"" + product.getId() + "-" + product.getVersion() + "\"";
+    }
+    
+    static String ofList(Collection<Product> products) {
+        long hash = FNV_OFFSET;
+        for (Product product : products) {
+            hash = mix(hash, product.getId() != null ? product.getId() : 0L);
+            hash = mix(hash, product.getVersion() != null ? product.getVersion() : 0L);
+        }
+        return "\"L" + products.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+    
+    /**
+     * Version the client expects from an If-Match header, or null when the header is absent
+     * or "*". Tags for another product, or that cannot be parsed, never match.
+     */
+    static Long expectedVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            return UNMATCHABLE_VERSION;
+        }
+        tag = tag.replace("\"", "");
+        int separator = tag.lastIndexOf('-');
+        if (separator <= 0 || !tag.substring(0, separator).equals(String.valueOf(id))) {
+            return UNMATCHABLE_VERSION;
+        }
+        try {
+            return Long.valueOf(tag.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return UNMATCHABLE_VERSION;
+        }
+    }
+    
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
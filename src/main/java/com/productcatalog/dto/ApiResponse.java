@@ -5,6 +5,9 @@ public class ApiResponse<T> {
     private String message;
     private T data;
     
+    public ApiResponse() {
+    }
+    
     public ApiResponse(boolean success, String message, T data) {
         this.success = success;
         this.message = message;
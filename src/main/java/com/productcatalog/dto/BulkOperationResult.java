@@ -0,0 +1,34 @@
+package com.productcatalog.dto;
+
+import java.util.List;
+
+public class BulkOperationResult {
+    
+    private int created;
+    private int updated;
+    private int failed;
+    private List<BulkRowResult> rows;
+    
+    public BulkOperationResult(List<BulkRowResult> rows) {
+        this.rows = rows;
+        for (BulkRowResult row : rows) {
+            switch (row.getStatus()) {
+                case CREATED -> created++;
+                case UPDATED -> updated++;
+                case FAILED -> failed++;
+            }
+        }
+    }
+    
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+    
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+    
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    
+    public List<BulkRowResult> getRows() { return rows; }
+    public void setRows(List<BulkRowResult> rows) { this.rows = rows; }
+}
@@ -0,0 +1,47 @@
+package com.productcatalog.dto;
+
+public class BulkRowResult {
+    
+    public enum Status { CREATED, UPDATED, FAILED }
+    
+    private int index;
+    private String sku;
+    private Long id;
+    private Status status;
+    private String message;
+    
+    public BulkRowResult(int index, String sku, Long id, Status status, String message) {
+        this.index = index;
+        this.sku = sku;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+    
+    public static BulkRowResult created(int index, String sku, Long id) {
+        return new BulkRowResult(index, sku, id, Status.CREATED, null);
+    }
+    
+    public static BulkRowResult updated(int index, String sku, Long id) {
+        return new BulkRowResult(index, sku, id, Status.UPDATED, null);
+    }
+    
+    public static BulkRowResult failed(int index, String sku, String message) {
+        return new BulkRowResult(index, sku, null, Status.FAILED, message);
+    }
+    
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
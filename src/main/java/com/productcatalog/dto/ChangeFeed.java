@@ -0,0 +1,29 @@
+package com.productcatalog.dto;
+
+import java.util.List;
+
+public class ChangeFeed {
+    
+    private List<ProductChangeEvent> changes;
+    // Pass as since= on the next request
+    private long nextCursor;
+    private boolean hasMore;
+    
+    public ChangeFeed() {
+    }
+    
+    public ChangeFeed(List<ProductChangeEvent> changes, long nextCursor, boolean hasMore) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+    
+    public List<ProductChangeEvent> getChanges() { return changes; }
+    public void setChanges(List<ProductChangeEvent> changes) { this.changes = changes; }
+    
+    public long getNextCursor() { return nextCursor; }
+    public void setNextCursor(long nextCursor) { this.nextCursor = nextCursor; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,15 @@
+package com.productcatalog.dto;
+
+import java.util.List;
+
+public class ProductBatchRequest {
+    
+    private List<Long> ids;
+    private List<String> skus;
+    
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    
+    public List<String> getSkus() { return skus; }
+    public void setSkus(List<String> skus) { this.skus = skus; }
+}
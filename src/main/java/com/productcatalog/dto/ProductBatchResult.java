@@ -0,0 +1,31 @@
+package com.productcatalog.dto;
+
+import com.productcatalog.entity.Product;
+
+import java.util.List;
+
+public class ProductBatchResult {
+    
+    // Requested ids first, then requested SKUs, each in request order
+    private List<Product> products;
+    private List<Long> missingIds;
+    private List<String> missingSkus;
+    
+    public ProductBatchResult() {
+    }
+    
+    public ProductBatchResult(List<Product> products, List<Long> missingIds, List<String> missingSkus) {
+        this.products = products;
+        this.missingIds = missingIds;
+        this.missingSkus = missingSkus;
+    }
+    
+    public List<Product> getProducts() { return products; }
+    public void setProducts(List<Product> products) { this.products = products; }
+    
+    public List<Long> getMissingIds() { return missingIds; }
+    public void setMissingIds(List<Long> missingIds) { this.missingIds = missingIds; }
+    
+    public List<String> getMissingSkus() { return missingSkus; }
+    public void setMissingSkus(List<String> missingSkus) { this.missingSkus = missingSkus; }
+}
@@ -0,0 +1,42 @@
+package com.productcatalog.dto;
+
+import com.productcatalog.entity.Product;
+import com.productcatalog.entity.ProductChangeType;
+
+import java.time.LocalDateTime;
+
+public class ProductChangeEvent {
+    
+    private Long changeId;
+    private Long productId;
+    private ProductChangeType type;
+    private LocalDateTime changedAt;
+    // Current state of the product; null for deletions
+    private Product product;
+    
+    public ProductChangeEvent() {
+    }
+    
+    public ProductChangeEvent(Long changeId, Long productId, ProductChangeType type, LocalDateTime changedAt, Product product) {
+        this.changeId = changeId;
+        this.productId = productId;
+        this.type = type;
+        this.changedAt = changedAt;
+        this.product = product;
+    }
+    
+    public Long getChangeId() { return changeId; }
+    public void setChangeId(Long changeId) { this.changeId = changeId; }
+    
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public ProductChangeType getType() { return type; }
+    public void setType(ProductChangeType type) { this.type = type; }
+    
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+    
+    public Product getProduct() { return product; }
+    public void setProduct(Product product) { this.product = product; }
+}
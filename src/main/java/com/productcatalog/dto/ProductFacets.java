@@ -0,0 +1,49 @@
+package com.productcatalog.dto;
+
+import java.util.Map;
+import java.util.Objects;
+
+public class ProductFacets {
+    
+    private long total;
+    private long active;
+    private long inactive;
+    private Map<String, Long> categories;
+    private Map<String, Long> brands;
+    
+    public ProductFacets(long total, long active, long inactive, Map<String, Long> categories, Map<String, Long> brands) {
+        this.total = total;
+        this.active = active;
+        this.inactive = inactive;
+        this.categories = categories;
+        this.brands = brands;
+    }
+    
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    
+    public long getActive() { return active; }
+    public void setActive(long active) { this.active = active; }
+    
+    public long getInactive() { return inactive; }
+    public void setInactive(long inactive) { this.inactive = inactive; }
+    
+    public Map<String, Long> getCategories() { return categories; }
+    public void setCategories(Map<String, Long> categories) { this.categories = categories; }
+    
+    public Map<String, Long> getBrands() { return brands; }
+    public void setBrands(Map<String, Long> brands) { this.brands = brands; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ProductFacets that)) return false;
+        return total == that.total && active == that.active && inactive == that.inactive
+                && Objects.equals(categories, that.categories) && Objects.equals(brands, that.brands);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(total, active, inactive, categories, brands);
+    }
+}
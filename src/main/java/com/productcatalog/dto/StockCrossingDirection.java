@@ -0,0 +1,8 @@
+package com.productcatalog.dto;
+
+public enum StockCrossingDirection {
+    // Stock fell to or below the watch threshold
+    LOW,
+    // Stock rose back above the watch threshold
+    RECOVERED
+}
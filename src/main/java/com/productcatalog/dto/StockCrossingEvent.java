@@ -0,0 +1,65 @@
+package com.productcatalog.dto;
+
+import java.time.LocalDateTime;
+
+public class StockCrossingEvent {
+    
+    private long sequence;
+    private Long watchId;
+    private Long productId;
+    private String sku;
+    private String category;
+    private int threshold;
+    // Null when the product was created already at or below the threshold
+    private Integer previousStock;
+    private int currentStock;
+    private StockCrossingDirection direction;
+    private LocalDateTime occurredAt;
+    
+    public StockCrossingEvent() {
+    }
+    
+    public StockCrossingEvent(long sequence, Long watchId, Long productId, String sku, String category, int threshold,
+                              Integer previousStock, int currentStock, StockCrossingDirection direction, LocalDateTime occurredAt) {
+        this.sequence = sequence;
+        this.watchId = watchId;
+        this.productId = productId;
+        this.sku = sku;
+        this.category = category;
+        this.threshold = threshold;
+        this.previousStock = previousStock;
+        this.currentStock = currentStock;
+        this.direction = direction;
+        this.occurredAt = occurredAt;
+    }
+    
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+    
+    public Long getWatchId() { return watchId; }
+    public void setWatchId(Long watchId) { this.watchId = watchId; }
+    
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public int getThreshold() { return threshold; }
+    public void setThreshold(int threshold) { this.threshold = threshold; }
+    
+    public Integer getPreviousStock() { return previousStock; }
+    public void setPreviousStock(Integer previousStock) { this.previousStock = previousStock; }
+    
+    public int getCurrentStock() { return currentStock; }
+    public void setCurrentStock(int currentStock) { this.currentStock = currentStock; }
+    
+    public StockCrossingDirection getDirection() { return direction; }
+    public void setDirection(StockCrossingDirection direction) { this.direction = direction; }
+    
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
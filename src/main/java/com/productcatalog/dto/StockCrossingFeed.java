@@ -0,0 +1,24 @@
+package com.productcatalog.dto;
+
+import java.util.List;
+
+public class StockCrossingFeed {
+    
+    private List<StockCrossingEvent> events;
+    // Pass as after= on the next poll
+    private long nextCursor;
+    
+    public StockCrossingFeed() {
+    }
+    
+    public StockCrossingFeed(List<StockCrossingEvent> events, long nextCursor) {
+        this.events = events;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<StockCrossingEvent> getEvents() { return events; }
+    public void setEvents(List<StockCrossingEvent> events) { this.events = events; }
+    
+    public long getNextCursor() { return nextCursor; }
+    public void setNextCursor(long nextCursor) { this.nextCursor = nextCursor; }
+}
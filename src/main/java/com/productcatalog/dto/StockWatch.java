@@ -0,0 +1,40 @@
+package com.productcatalog.dto;
+
+import java.time.LocalDateTime;
+
+public class StockWatch {
+    
+    private Long id;
+    // Exactly one of category and sku is set
+    private String category;
+    private String sku;
+    // A product is low once its stock is at or below this level
+    private Integer threshold;
+    private LocalDateTime createdAt;
+    
+    public StockWatch() {
+    }
+    
+    public StockWatch(Long id, String category, String sku, Integer threshold, LocalDateTime createdAt) {
+        this.id = id;
+        this.category = category;
+        this.sku = sku;
+        this.threshold = threshold;
+        this.createdAt = createdAt;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+    
+    public Integer getThreshold() { return threshold; }
+    public void setThreshold(Integer threshold) { this.threshold = threshold; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -6,11 +6,17 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_active_price", columnList = "category, is_active, price"),
+        @Index(name = "idx_products_brand_active_price", columnList = "brand, is_active, price"),
+        @Index(name = "idx_products_price", columnList = "price"),
+        @Index(name = "idx_products_stock_quantity", columnList = "stock_quantity")
+})
 public class Product {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Product name is required")
@@ -44,12 +50,17 @@ public class Product {
     @Column(name = "is_active")
     private Boolean isActive = true;
     
-    @Column(name = "created_at")
+    // Both are set on persist and are keyset sort keys, so they must never be null
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
-    @Column(name = "updated_at")
+    @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     // Constructors
     public Product() {
     }
@@ -65,6 +76,21 @@ public class Product {
         this.sku = sku;
     }
     
+    public Product(Product other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.description = other.description;
+        this.price = other.price;
+        this.stockQuantity = other.stockQuantity;
+        this.category = other.category;
+        this.brand = other.brand;
+        this.sku = other.sku;
+        this.isActive = other.isActive;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.version = other.version;
+    }
+    
     // Pre-persist and pre-update 
     @PrePersist
     protected void onCreate() {
@@ -110,6 +136,9 @@ public class Product {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     @Override
     public String toString() {
         return "Product{" +
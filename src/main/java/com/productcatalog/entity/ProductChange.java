@@ -0,0 +1,50 @@
+package com.productcatalog.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the ordered product change log. Entries only record which product
+ * changed and how; readers load the current product state when they consume them.
+ */
+@Entity
+@Table(name = "product_changes", indexes = @Index(name = "idx_product_changes_changed_at", columnList = "changed_at"))
+public class ProductChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_change_seq")
+    @SequenceGenerator(name = "product_change_seq", sequenceName = "product_changes_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ProductChangeType type;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    
+    // Constructors
+    public ProductChange() {
+    }
+    
+    public ProductChange(Long productId, ProductChangeType type, LocalDateTime changedAt) {
+        this.productId = productId;
+        this.type = type;
+        this.changedAt = changedAt;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public ProductChangeType getType() { return type; }
+    public void setType(ProductChangeType type) { this.type = type; }
+    
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
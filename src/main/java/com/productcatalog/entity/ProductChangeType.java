@@ -0,0 +1,7 @@
+package com.productcatalog.entity;
+
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
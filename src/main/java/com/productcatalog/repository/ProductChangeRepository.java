@@ -0,0 +1,31 @@
+package com.productcatalog.repository;
+
+import com.productcatalog.entity.ProductChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+    
+    List<ProductChange> findByIdGreaterThanAndIdLessThanEqualOrderById(Long after, Long through, Limit limit);
+    
+    @Query("SELECT MAX(c.id) FROM ProductChange c WHERE c.changedAt < :cutoff")
+    Long findLastIdBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    @Query("SELECT MIN(c.id) FROM ProductChange c")
+    Long findFirstId();
+    
+    @Query("SELECT MAX(c.id) FROM ProductChange c")
+    Long findLastId();
+    
+    @Modifying
+    @Query("DELETE FROM ProductChange c WHERE c.id <= :id")
+    int deleteThrough(@Param("id") Long id);
+}
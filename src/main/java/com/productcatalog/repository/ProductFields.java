@@ -0,0 +1,104 @@
+package com.productcatalog.repository;
+
+import com.productcatalog.entity.Product;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A sparse field selection for product list responses: either a named view
+ * ("summary", "full") or a comma-separated list of product properties.
+ */
+public final class ProductFields {
+    
+    private static final Map<String, Function<Product, Object>> ACCESSORS = new LinkedHashMap<>();
+    
+    static {
+        ACCESSORS.put("id", Product::getId);
+        ACCESSORS.put("name", Product::getName);
+        ACCESSORS.put("description", Product::getDescription);
+        ACCESSORS.put("price", Product::getPrice);
+        ACCESSORS.put("stockQuantity", Product::getStockQuantity);
+        ACCESSORS.put("category", Product::getCategory);
+        ACCESSORS.put("brand", Product::getBrand);
+        ACCESSORS.put("sku", Product::getSku);
+        ACCESSORS.put("isActive", Product::getIsActive);
+        ACCESSORS.put("createdAt", Product::getCreatedAt);
+        ACCESSORS.put("updatedAt", Product::getUpdatedAt);
+        ACCESSORS.put("version", Product::getVersion);
+    }
+    
+    private static final Map<String, List<String>> VIEWS = Map.of(
+            "summary", List.of("id", "name", "price", "sku"),
+            "full", List.copyOf(ACCESSORS.keySet()));
+    
+    private final List<String> names;
+    
+    private ProductFields(List<String> names) {
+        this.names = names;
+    }
+    
+    public static ProductFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            throw new IllegalArgumentException("fields must name a view " + VIEWS.keySet() + " or list product properties");
+        }
+        List<String> view = VIEWS.get(fields.trim().toLowerCase());
+        if (view != null) {
+            return new ProductFields(view);
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ACCESSORS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown product field: " + name + ". Available fields: " + ACCESSORS.keySet());
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be selected");
+        }
+        return new ProductFields(new ArrayList<>(selected));
+    }
+    
+    public List<String> names() {
+        return names;
+    }
+    
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+    
+    public ProductFields including(String name) {
+        if (names.contains(name)) {
+            return this;
+        }
+        if (!ACCESSORS.containsKey(name)) {
+            throw new IllegalArgumentException("Unknown product field: " + name);
+        }
+        List<String> extended = new ArrayList<>(names.size() + 1);
+        extended.add(name);
+        extended.addAll(names);
+        return new ProductFields(extended);
+    }
+    
+    public Map<String, Object> project(Product product) {
+        Map<String, Object> row = new LinkedHashMap<>(names.size() * 2);
+        for (String name : names) {
+            row.put(name, ACCESSORS.get(name).apply(product));
+        }
+        return row;
+    }
+    
+    @Override
+    public String toString() {
+        return String.join(",", names);
+    }
+}
@@ -1,17 +1,26 @@
 package com.productcatalog.repository;
 
 import com.productcatalog.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
     
     List<Product> findByCategory(String category);
     
@@ -22,15 +31,51 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     List<Product> findByBrand(String brand);
     
     Optional<Product> findBySku(String sku);
-    List<Product> findByPriceLessThanEqual(Double maxPrice);
+    List<Product> findByPriceLessThanEqual(BigDecimal maxPrice);
     
-    List<Product> findByPriceBetween(Double minPrice, Double maxPrice);
+    List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
     
     List<Product> findByStockQuantityGreaterThan(Integer minStock);
     
     @Query("SELECT p FROM Product p WHERE p.name LIKE %:keyword% OR p.description LIKE %:keyword%")
     List<Product> searchProducts(@Param("keyword") String keyword);
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllByOrderById();
+    
+    List<Product> findBySkuIn(Collection<String> skus);
+    
+    List<Product> findAllByOrderByUpdatedAtDesc(Limit limit);
+    
+    @Query("SELECT p.sku FROM Product p WHERE p.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.updatedAt = :now, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, p.updatedAt = :now, p.version = p.version + 1 " +
+           "WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = :stock, p.updatedAt = :now, p.version = p.version + 1 " +
+           "WHERE p.id = :id")
+    int setStock(@Param("id") Long id, @Param("stock") int stock, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT p.category, p.brand, p.isActive, COUNT(p) FROM Product p GROUP BY p.category, p.brand, p.isActive")
+    List<Object[]> countByCategoryBrandAndActive();
+    
+    @Query("SELECT p.id, p.category, p.brand, p.isActive FROM Product p")
+    List<Object[]> findFacetKeys();
+    
     boolean existsBySku(String sku);
     boolean existsBySkuAndIdNot(String sku, Long id);
 }
\ No newline at end of file
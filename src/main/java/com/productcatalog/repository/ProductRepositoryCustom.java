@@ -0,0 +1,14 @@
+package com.productcatalog.repository;
+
+import com.productcatalog.entity.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+    
+    // Selects only the requested columns; each row maps field name to value in selection order
+    List<Map<String, Object>> findFields(Specification<Product> spec, ProductFields fields, Sort sort);
+}
@@ -0,0 +1,88 @@
+package com.productcatalog.repository;
+
+import com.productcatalog.dto.ProductFilter;
+import com.productcatalog.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Composable predicates over {@link Product}. Equality filters come first so the
+ * (category | brand, is_active, price) indexes can serve them; the keyword match is
+ * a residual filter on the rows those indexes select.
+ */
+public final class ProductSpecifications {
+    
+    private ProductSpecifications() {
+    }
+    
+    public static Specification<Product> matching(ProductFilter filter) {
+        List<Specification<Product>> specs = new ArrayList<>();
+        if (filter.getCategory() != null && !filter.getCategory().isBlank()) {
+            specs.add(hasCategory(filter.getCategory()));
+        }
+        if (filter.getBrand() != null && !filter.getBrand().isBlank()) {
+            specs.add(hasBrand(filter.getBrand()));
+        }
+        if (filter.getActive() != null) {
+            specs.add(isActive(filter.getActive()));
+        }
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+            specs.add(priceBetween(filter.getMinPrice(), filter.getMaxPrice()));
+        }
+        if (filter.getMinStock() != null) {
+            specs.add(stockAtLeast(filter.getMinStock()));
+        }
+        if (filter.getKeyword() != null && !filter.getKeyword().isBlank()) {
+            specs.add(keywordMatches(filter.getKeyword()));
+        }
+        return Specification.allOf(specs);
+    }
+    
+    public static Specification<Product> hasCategory(String category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+    
+    public static Specification<Product> hasBrand(String brand) {
+        return (root, query, cb) -> cb.equal(root.get("brand"), brand);
+    }
+    
+    public static Specification<Product> isActive(boolean active) {
+        return (root, query, cb) -> cb.equal(root.get("isActive"), active);
+    }
+    
+    // Either bound may be null for an open range
+    public static Specification<Product> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return (root, query, cb) -> {
+            if (minPrice != null && maxPrice != null) {
+                return cb.between(root.get("price"), minPrice, maxPrice);
+            }
+            return minPrice != null
+                    ? cb.greaterThanOrEqualTo(root.get("price"), minPrice)
+                    : cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+        };
+    }
+    
+    public static Specification<Product> stockAtLeast(int minStock) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("stockQuantity"), minStock);
+    }
+    
+    public static Specification<Product> stockAtMost(int maxStock) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("stockQuantity"), maxStock);
+    }
+    
+    // Case-insensitive substring match on name, brand or description
+    public static Specification<Product> keywordMatches(String keyword) {
+        String pattern = "%" + keyword.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("name")), pattern, '\\'),
+                cb.like(cb.lower(root.get("brand")), pattern, '\\'),
+                cb.like(cb.lower(root.get("description")), pattern, '\\'));
+    }
+}
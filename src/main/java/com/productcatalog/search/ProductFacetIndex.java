@@ -0,0 +1,150 @@
+package com.productcatalog.search;
+
+import com.productcatalog.dto.ProductFacets;
+import com.productcatalog.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Incrementally maintained product counts per category, brand and active state.
+ * The facet key of every product is kept so counts can also be computed for an
+ * arbitrary id set, e.g. a price range or search result. Updates older than the indexed
+ * version of a product, or for a removed product, are ignored.
+ */
+@Component
+public class ProductFacetIndex {
+    
+    public record FacetKey(String category, String brand, boolean active) {
+        
+        public static FacetKey of(Product product) {
+            return new FacetKey(product.getCategory(), product.getBrand(), !Boolean.FALSE.equals(product.getIsActive()));
+        }
+    }
+    
+    private final Map<Long, FacetKey> keys = new HashMap<>();
+    private final ProductVersions versions = new ProductVersions();
+    private final Map<String, Long> categoryCounts = new HashMap<>();
+    private final Map<String, Long> brandCounts = new HashMap<>();
+    private long activeCount;
+    private long version;
+    
+    public synchronized void index(Product product) {
+        if (product == null || product.getId() == null || !versions.advance(product)) {
+            return;
+        }
+        FacetKey key = FacetKey.of(product);
+        FacetKey previous = keys.put(product.getId(), key);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(key, 1);
+        version++;
+    }
+    
+    public synchronized void indexAll(Collection<Product> products) {
+        products.forEach(this::index);
+    }
+    
+    public synchronized void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        versions.remove(id);
+        FacetKey previous = keys.remove(id);
+        if (previous != null) {
+            apply(previous, -1);
+            version++;
+        }
+    }
+    
+    public synchronized void rebuild(Collection<Product> products) {
+        versions.clear();
+        Map<Long, FacetKey> rebuilt = new HashMap<>();
+        for (Product product : products) {
+            if (product.getId() != null && versions.advance(product)) {
+                rebuilt.put(product.getId(), FacetKey.of(product));
+            }
+        }
+        replace(rebuilt);
+    }
+    
+    /**
+     * Replaces the whole index, but only if nothing changed since {@code expectedVersion};
+     * a concurrent write means the loaded keys may already be stale.
+     */
+    public synchronized boolean replaceIfUnchanged(long expectedVersion, Map<Long, FacetKey> loaded) {
+        if (version != expectedVersion) {
+            return false;
+        }
+        replace(loaded);
+        return true;
+    }
+    
+    public synchronized long version() {
+        return version;
+    }
+    
+    public synchronized ProductFacets counts() {
+        return new ProductFacets(keys.size(), activeCount, keys.size() - activeCount,
+                new TreeMap<>(categoryCounts), new TreeMap<>(brandCounts));
+    }
+    
+    public synchronized ProductFacets counts(long[] ids) {
+        Map<String, Long> categories = new TreeMap<>();
+        Map<String, Long> brands = new TreeMap<>();
+        long total = 0;
+        long active = 0;
+        for (long id : ids) {
+            FacetKey key = keys.get(id);
+            if (key == null) {
+                continue;
+            }
+            total++;
+            if (key.active()) {
+                active++;
+            }
+            if (key.category() != null) {
+                categories.merge(key.category(), 1L, Long::sum);
+            }
+            if (key.brand() != null) {
+                brands.merge(key.brand(), 1L, Long::sum);
+            }
+        }
+        return new ProductFacets(total, active, total - active, categories, brands);
+    }
+    
+    private void replace(Map<Long, FacetKey> loaded) {
+        keys.clear();
+        categoryCounts.clear();
+        brandCounts.clear();
+        activeCount = 0;
+        keys.putAll(loaded);
+        loaded.values().forEach(key -> apply(key, 1));
+        version++;
+    }
+    
+    private void apply(FacetKey key, long delta) {
+        if (key.category() != null) {
+            adjust(categoryCounts, key.category(), delta);
+        }
+        if (key.brand() != null) {
+            adjust(brandCounts, key.brand(), delta);
+        }
+        if (key.active()) {
+            activeCount += delta;
+        }
+    }
+    
+    private static void adjust(Map<String, Long> counts, String value, long delta) {
+        long updated = counts.getOrDefault(value, 0L) + delta;
+        if (updated <= 0) {
+            counts.remove(value);
+        } else {
+            counts.put(value, updated);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.productcatalog.search;
+
+import com.productcatalog.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sorted price index held in parallel primitive arrays ordered by (price in cents, id).
+ * Readers work on an immutable snapshot published through a volatile field; writers
+ * copy the arrays, so a range query never blocks. Updates older than the indexed version
+ * of a product, or for a removed product, are ignored.
+ */
+@Component
+public class ProductPriceIndex {
+
+    private static final int INCREMENTAL_BATCH_LIMIT = 64;
+
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    private static final Snapshot EMPTY = new Snapshot(new long[0], new long[0], new String[0], new boolean[0]);
+
+    private volatile Snapshot snapshot = EMPTY;
+    private final Map<Long, Long> centsById = new HashMap<>();
+    private final ProductVersions versions = new ProductVersions();
+
+    public synchronized void index(Product product) {
+        if (product == null || product.getId() == null || product.getPrice() == null || !versions.advance(product)) {
+            return;
+        }
+        Snapshot current = removeFrom(snapshot, product.getId());
+        long cents = toCents(product.getPrice(), RoundingMode.HALF_UP);
+        int position = -(current.search(cents, product.getId()) + 1);
+        int size = current.size();
+
+        long[] priceCents = new long[size + 1];
+        long[] ids = new long[size + 1];
+        String[] categories = new String[size + 1];
+        boolean[] active = new boolean[size + 1];
+        insert(current.priceCents, priceCents, position, cents);
+        insert(current.ids, ids, position, product.getId());
+        System.arraycopy(current.categories, 0, categories, 0, position);
+        System.arraycopy(current.categories, position, categories, position + 1, size - position);
+        categories[position] = product.getCategory() != null ? product.getCategory().intern() : null;
+        System.arraycopy(current.active, 0, active, 0, position);
+        System.arraycopy(current.active, position, active, position + 1, size - position);
+        active[position] = !Boolean.FALSE.equals(product.getIsActive());
+
+        centsById.put(product.getId(), cents);
+        snapshot = new Snapshot(priceCents, ids, categories, active);
+    }
+
+    public synchronized void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        versions.remove(id);
+        snapshot = removeFrom(snapshot, id);
+    }
+
+    /**
+     * Applies many changes at once. Large batches are merged and re-sorted in one pass
+     * instead of copying the arrays once per product.
+     */
+    public synchronized void indexAll(Collection<Product> products) {
+        if (products.size() <= INCREMENTAL_BATCH_LIMIT) {
+            products.forEach(this::index);
+            return;
+        }
+        Map<Long, Product> updates = new HashMap<>();
+        for (Product product : products) {
+            if (product.getId() != null && product.getPrice() != null && versions.advance(product)) {
+                updates.put(product.getId(), product);
+            }
+        }
+        Snapshot current = snapshot;
+        List<Entry> entries = new ArrayList<>(current.size() + updates.size());
+        for (int i = 0; i < current.size(); i++) {
+            if (!updates.containsKey(current.ids[i])) {
+                entries.add(new Entry(current.priceCents[i], current.ids[i], current.categories[i], current.active[i]));
+            }
+        }
+        updates.values().forEach(product -> entries.add(Entry.of(product)));
+        publish(entries);
+    }
+
+    public synchronized void rebuild(Collection<Product> products) {
+        versions.clear();
+        List<Entry> entries = new ArrayList<>(products.size());
+        for (Product product : products) {
+            if (product.getId() != null && product.getPrice() != null && versions.advance(product)) {
+                entries.add(Entry.of(product));
+            }
+        }
+        centsById.clear();
+        publish(entries);
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * Returns the ids of products priced within [minPrice, maxPrice], cheapest first.
+     * A null bound is open; category and activeOnly filters are optional.
+     */
+    public long[] findIds(BigDecimal minPrice, BigDecimal maxPrice, String category, boolean activeOnly) {
+        Snapshot current = snapshot;
+        long minCents = minPrice != null ? toCents(minPrice, RoundingMode.CEILING) : Long.MIN_VALUE;
+        long maxCents = maxPrice != null ? toCents(maxPrice, RoundingMode.FLOOR) : Long.MAX_VALUE;
+        if (minCents > maxCents) {
+            return new long[0];
+        }
+
+        int from = current.lowerBound(minCents);
+        int to = maxCents == Long.MAX_VALUE ? current.size() : current.lowerBound(maxCents + 1);
+        if (category == null && !activeOnly) {
+            return Arrays.copyOfRange(current.ids, from, to);
+        }
+
+        long[] matches = new long[to - from];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (activeOnly && !current.active[i]) {
+                continue;
+            }
+            if (category != null && !category.equals(current.categories[i])) {
+                continue;
+            }
+            matches[count++] = current.ids[i];
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    // Bounds beyond the long range clamp to the open ends instead of overflowing
+    public static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        BigDecimal cents = price.movePointRight(2).setScale(0, roundingMode);
+        if (cents.compareTo(MAX_CENTS) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        if (cents.compareTo(MIN_CENTS) <= 0) {
+            return Long.MIN_VALUE;
+        }
+        return cents.longValue();
+    }
+
+    private void publish(List<Entry> entries) {
+        entries.sort(Comparator.comparingLong(Entry::cents).thenComparingLong(Entry::id));
+        long[] priceCents = new long[entries.size()];
+        long[] ids = new long[entries.size()];
+        String[] categories = new String[entries.size()];
+        boolean[] active = new boolean[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            priceCents[i] = entry.cents();
+            ids[i] = entry.id();
+            categories[i] = entry.category();
+            active[i] = entry.active();
+            centsById.put(entry.id(), entry.cents());
+        }
+        snapshot = new Snapshot(priceCents, ids, categories, active);
+    }
+
+    private Snapshot removeFrom(Snapshot current, Long id) {
+        Long cents = centsById.remove(id);
+        if (cents == null) {
+            return current;
+        }
+        int position = current.search(cents, id);
+        if (position < 0) {
+            return current;
+        }
+        int size = current.size();
+        long[] priceCents = new long[size - 1];
+        long[] ids = new long[size - 1];
+        String[] categories = new String[size - 1];
+        boolean[] active = new boolean[size - 1];
+        delete(current.priceCents, priceCents, position);
+        delete(current.ids, ids, position);
+        System.arraycopy(current.categories, 0, categories, 0, position);
+        System.arraycopy(current.categories, position + 1, categories, position, size - position - 1);
+        System.arraycopy(current.active, 0, active, 0, position);
+        System.arraycopy(current.active, position + 1, active, position, size - position - 1);
+        return new Snapshot(priceCents, ids, categories, active);
+    }
+
+    private static void insert(long[] source, long[] target, int position, long value) {
+        System.arraycopy(source, 0, target, 0, position);
+        System.arraycopy(source, position, target, position + 1, source.length - position);
+        target[position] = value;
+    }
+
+    private static void delete(long[] source, long[] target, int position) {
+        System.arraycopy(source, 0, target, 0, position);
+        System.arraycopy(source, position + 1, target, position, source.length - position - 1);
+    }
+
+    private record Entry(long cents, long id, String category, boolean active) {
+
+        private static Entry of(Product product) {
+            return new Entry(toCents(product.getPrice(), RoundingMode.HALF_UP), product.getId(),
+                    product.getCategory() != null ? product.getCategory().intern() : null,
+                    !Boolean.FALSE.equals(product.getIsActive()));
+        }
+    }
+
+    private static final class Snapshot {
+        private final long[] priceCents;
+        private final long[] ids;
+        private final String[] categories;
+        private final boolean[] active;
+
+        private Snapshot(long[] priceCents, long[] ids, String[] categories, boolean[] active) {
+            this.priceCents = priceCents;
+            this.ids = ids;
+            this.categories = categories;
+            this.active = active;
+        }
+
+        private int size() {
+            return ids.length;
+        }
+
+        // First position whose price is >= cents
+        private int lowerBound(long cents) {
+            int low = 0;
+            int high = priceCents.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (priceCents[mid] < cents) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Binary search on (cents, id); returns -(insertion point) - 1 when absent
+        private int search(long cents, long id) {
+            int low = 0;
+            int high = priceCents.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = priceCents[mid] != cents ? Long.compare(priceCents[mid], cents) : Long.compare(ids[mid], id);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.productcatalog.search;
+
+import com.productcatalog.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name, brand, category and description.
+ * Query terms match indexed tokens exactly or by prefix; results are ranked by a
+ * field-weighted TF-IDF score. An update older than the indexed version of a product,
+ * or for a removed product, is ignored.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int NAME_WEIGHT = 4;
+    private static final int BRAND_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+
+    // term -> (product id -> weighted term frequency)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final Map<Long, Product> documents = new HashMap<>();
+    private final ProductVersions versions = new ProductVersions();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        Map<String, Integer> termWeights = new HashMap<>();
+        addTerms(termWeights, product.getName(), NAME_WEIGHT);
+        addTerms(termWeights, product.getBrand(), BRAND_WEIGHT);
+        addTerms(termWeights, product.getCategory(), CATEGORY_WEIGHT);
+        addTerms(termWeights, product.getDescription(), DESCRIPTION_WEIGHT);
+        Product document = new Product(product);
+
+        lock.writeLock().lock();
+        try {
+            if (!versions.advance(document)) {
+                return;
+            }
+            removeInternal(document.getId());
+            termWeights.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, k -> new HashMap<>()).put(document.getId(), weight));
+            documentTerms.put(document.getId(), termWeights.keySet());
+            documents.put(document.getId(), document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            versions.remove(id);
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            documents.clear();
+            versions.clear();
+            products.forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns products matching all (AND) or any (OR) of the query terms, best match first.
+     * A non-positive limit returns every match.
+     */
+    public List<Product> search(String query, SearchOperator operator, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] ids = rankedIds(query, operator, limit);
+            List<Product> results = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                results.add(new Product(documents.get(id)));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] searchIds(String query, SearchOperator operator, int limit) {
+        lock.readLock().lock();
+        try {
+            return rankedIds(query, operator, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] rankedIds(String query, SearchOperator operator, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return new long[0];
+        }
+
+        Map<Long, Double> scores = null;
+        for (String term : terms) {
+            Map<Long, Double> termScores = scoreTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else if (operator == SearchOperator.OR) {
+                Map<Long, Double> merged = scores;
+                termScores.forEach((id, score) -> merged.merge(id, score, Double::sum));
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                    entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                }
+            }
+            if (operator != SearchOperator.OR && scores.isEmpty()) {
+                return new long[0];
+            }
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        int size = limit > 0 ? Math.min(limit, ranked.size()) : ranked.size();
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = ranked.get(i).getKey();
+        }
+        return ids;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private Map<Long, Double> scoreTerm(String term) {
+        Map<Long, Double> scores = new HashMap<>();
+        int documentCount = documents.size();
+        Map<String, Map<Long, Integer>> matches = postings.subMap(term, true, term + Character.MAX_VALUE, true);
+        for (Map.Entry<String, Map<Long, Integer>> match : matches.entrySet()) {
+            Map<Long, Integer> postingList = match.getValue();
+            double factor = match.getKey().equals(term) ? 1.0 : PREFIX_MATCH_FACTOR;
+            double idf = Math.log(1.0 + (double) documentCount / postingList.size());
+            postingList.forEach((id, weight) -> scores.merge(id, weight * idf * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private void removeInternal(Long id) {
+        Set<String> terms = documentTerms.remove(id);
+        if (terms != null) {
+            for (String term : terms) {
+                Map<Long, Integer> postingList = postings.get(term);
+                if (postingList != null) {
+                    postingList.remove(id);
+                    if (postingList.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+        documents.remove(id);
+    }
+
+    private static void addTerms(Map<String, Integer> termWeights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            termWeights.merge(token, weight, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.productcatalog.search;
+
+import com.productcatalog.entity.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Products ordered by (stock quantity, id). Stock moves on every order, so unlike the price
+ * index this is a skip list: an update is O(log n) instead of an array copy, and range reads
+ * stay lock-free. Writers are serialized so each update can report the stock it replaced.
+ * An update older than the indexed version of a product, or for a removed product, is
+ * ignored and reports no change.
+ */
+@Component
+public class ProductStockIndex {
+
+    /** A stock level that changed; previousStock is null for a product the index had not seen. */
+    public record StockChange(long productId, String sku, String category, Integer previousStock, int currentStock) {
+    }
+
+    private record Key(int stock, long id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            return stock != other.stock ? Integer.compare(stock, other.stock) : Long.compare(id, other.id);
+        }
+    }
+
+    private volatile ConcurrentSkipListMap<Key, String> entries = new ConcurrentSkipListMap<>();
+    private final Map<Long, Integer> stockById = new HashMap<>();
+    private final ProductVersions versions = new ProductVersions();
+
+    public synchronized StockChange index(Product product) {
+        if (product == null || product.getId() == null || !versions.advance(product)) {
+            return null;
+        }
+        Integer previous = stockById.get(product.getId());
+        if (previous != null) {
+            entries.remove(new Key(previous, product.getId()));
+        }
+        if (product.getStockQuantity() == null) {
+            stockById.remove(product.getId());
+            return null;
+        }
+        int current = product.getStockQuantity();
+        entries.put(new Key(current, product.getId()), product.getCategory() != null ? product.getCategory().intern() : "");
+        stockById.put(product.getId(), current);
+        if (previous != null && previous == current) {
+            return null;
+        }
+        return new StockChange(product.getId(), product.getSku(), product.getCategory(), previous, current);
+    }
+
+    /** Applies the batch and returns only the products whose stock level actually moved. */
+    public synchronized List<StockChange> indexAll(Collection<Product> products) {
+        List<StockChange> changes = new ArrayList<>();
+        for (Product product : products) {
+            StockChange change = index(product);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        return changes;
+    }
+
+    public synchronized void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        versions.remove(id);
+        Integer previous = stockById.remove(id);
+        if (previous != null) {
+            entries.remove(new Key(previous, id));
+        }
+    }
+
+    public synchronized void rebuild(Collection<Product> products) {
+        ConcurrentSkipListMap<Key, String> rebuilt = new ConcurrentSkipListMap<>();
+        stockById.clear();
+        versions.clear();
+        for (Product product : products) {
+            if (product.getId() != null && product.getStockQuantity() != null && versions.advance(product)) {
+                rebuilt.put(new Key(product.getStockQuantity(), product.getId()),
+                        product.getCategory() != null ? product.getCategory().intern() : "");
+                stockById.put(product.getId(), product.getStockQuantity());
+            }
+        }
+        entries = rebuilt;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Ids of products holding more than minStock units, lowest stock first. */
+    public long[] findIdsWithStockGreaterThan(int minStock) {
+        return ids(entries.tailMap(new Key(minStock, Long.MAX_VALUE), false), null);
+    }
+
+    /** Ids of products holding at most maxStock units, lowest stock first; category is optional. */
+    public long[] findIdsWithStockAtMost(int maxStock, String category) {
+        return ids(entries.headMap(new Key(maxStock, Long.MAX_VALUE), true), category);
+    }
+
+    private static long[] ids(NavigableMap<Key, String> range, String category) {
+        long[] ids = new long[16];
+        int count = 0;
+        for (Map.Entry<Key, String> entry : range.entrySet()) {
+            if (category != null && !category.equals(entry.getValue())) {
+                continue;
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = entry.getKey().id();
+        }
+        return Arrays.copyOf(ids, count);
+    }
+}
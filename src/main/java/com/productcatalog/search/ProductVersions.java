@@ -0,0 +1,39 @@
+package com.productcatalog.search;
+
+import com.productcatalog.entity.Product;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Version of the product state each index last applied per id. Index updates run in
+ * after-commit callbacks, which can run in a different order than the commits themselves,
+ * so an update older than the applied one, or for a removed id, has to be dropped. Not
+ * thread-safe; each index guards it with the lock that guards its own state.
+ */
+final class ProductVersions {
+
+    // Ids are never reused, so a removed id is only seen again through a late, older update
+    private static final long REMOVED = Long.MAX_VALUE;
+
+    private final Map<Long, Long> versions = new HashMap<>();
+
+    /** Records the product's version; false if an index already holds a newer state of it. */
+    boolean advance(Product product) {
+        long version = product.getVersion() != null ? product.getVersion() : 0;
+        Long applied = versions.get(product.getId());
+        if (applied != null && version < applied) {
+            return false;
+        }
+        versions.put(product.getId(), version);
+        return true;
+    }
+
+    void remove(Long id) {
+        versions.put(id, REMOVED);
+    }
+
+    void clear() {
+        versions.clear();
+    }
+}
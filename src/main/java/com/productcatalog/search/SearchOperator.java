@@ -0,0 +1,17 @@
+package com.productcatalog.search;
+
+public enum SearchOperator {
+    AND,
+    OR;
+    
+    public static SearchOperator from(String value) {
+        if (value == null || value.isBlank()) {
+            return AND;
+        }
+        try {
+            return SearchOperator.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported search operator: " + value + ". Use AND or OR.");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.productcatalog.service;
+
+public class ChangeLogExpiredException extends RuntimeException {
+    
+    public ChangeLogExpiredException(long since, long prunedThrough) {
+        super("Changes after " + since + " are no longer retained (pruned through " + prunedThrough
+                + "); take a fresh cursor from /changes without since, then reload the full catalog");
+    }
+}
@@ -0,0 +1,31 @@
+package com.productcatalog.service;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset paging: the sort field, direction, last sort value
+ * and last id of the previous page, base64url encoded.
+ */
+public record KeysetCursor(ProductSortField sortField, Sort.Direction direction, Comparable<?> lastValue, Long lastId) {
+    
+    private static final String SEPARATOR = "\n";
+    
+    public String encode() {
+        String raw = sortField.getProperty() + SEPARATOR + direction.name() + SEPARATOR + lastId + SEPARATOR + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            ProductSortField sortField = ProductSortField.fromProperty(parts[0]);
+            return new KeysetCursor(sortField, Sort.Direction.valueOf(parts[1]), sortField.parse(parts[3]), Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.productcatalog.service;
+
+import com.productcatalog.entity.ProductChange;
+import com.productcatalog.entity.ProductChangeType;
+import com.productcatalog.repository.ProductChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Ordered, durable log of product writes. Entries are appended in the writer's
+ * transaction, so a change is logged exactly when it commits. Ids come from a sequence
+ * before commit, so a later id can commit first; readers only see ids below the lowest
+ * one still in flight, which keeps the feed gap-free. This process must be the only
+ * writer of the log.
+ */
+@Component
+public class ProductChangeLog {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeLog.class);
+    
+    private final ProductChangeRepository changeRepository;
+    private final Duration retention;
+    private volatile long prunedThrough;
+    
+    // Ids allocated to transactions that have not completed yet, and the highest id allocated; guarded by inFlight
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private long lastAllocated;
+    
+    public ProductChangeLog(ProductChangeRepository changeRepository,
+                            @Value("${catalog.changes.retention:7d}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.retention = retention;
+    }
+    
+    // With a persistent store the log outlives the process; treat anything before the oldest kept entry as pruned
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void restoreWatermarks() {
+        Long first = changeRepository.findFirstId();
+        if (first != null) {
+            prunedThrough = Math.max(prunedThrough, first - 1);
+        }
+        Long last = changeRepository.findLastId();
+        if (last != null) {
+            synchronized (inFlight) {
+                lastAllocated = Math.max(lastAllocated, last);
+            }
+        }
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Long productId, ProductChangeType type) {
+        record(List.of(new ProductChange(productId, type, LocalDateTime.now())));
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(Collection<Long> productIds, ProductChangeType type) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductChange> changes = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            changes.add(new ProductChange(productId, type, now));
+        }
+        record(changes);
+    }
+    
+    /**
+     * Returns up to limit entries after the given change id, oldest first. Entries at or
+     * above the lowest id still in flight are held back until that transaction completes.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductChange> readAfter(long since, int limit) {
+        long pruned = prunedThrough;
+        if (since < pruned) {
+            throw new ChangeLogExpiredException(since, pruned);
+        }
+        long visible = visibleThrough();
+        if (since >= visible) {
+            return List.of();
+        }
+        return changeRepository.findByIdGreaterThanAndIdLessThanEqualOrderById(since, visible, Limit.of(limit));
+    }
+    
+    // Cursor a new consumer starts from, taken before it loads the full catalog
+    public long head() {
+        return Math.max(visibleThrough(), prunedThrough);
+    }
+    
+    @Scheduled(fixedDelayString = "${catalog.changes.prune-interval:1h}",
+               initialDelayString = "${catalog.changes.prune-interval:1h}")
+    @Transactional
+    public void prune() {
+        Long last = changeRepository.findLastIdBefore(LocalDateTime.now().minus(retention));
+        if (last == null) {
+            return;
+        }
+        prunedThrough = Math.max(prunedThrough, last);
+        int deleted = changeRepository.deleteThrough(last);
+        log.info("Pruned {} product changes through id {}", deleted, last);
+    }
+    
+    // Every id at or below this has committed or rolled back
+    private long visibleThrough() {
+        synchronized (inFlight) {
+            return inFlight.isEmpty() ? lastAllocated : inFlight.first() - 1;
+        }
+    }
+    
+    // Persisting assigns the sequence id; allocation and registration happen under one lock so no reader sees a gap
+    private void record(List<ProductChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(changes.size());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (inFlight) {
+                    ids.forEach(inFlight::remove);
+                }
+            }
+        });
+        synchronized (inFlight) {
+            for (ProductChange change : changes) {
+                changeRepository.save(change);
+                ids.add(change.getId());
+                inFlight.add(change.getId());
+                lastAllocated = Math.max(lastAllocated, change.getId());
+            }
+        }
+    }
+}
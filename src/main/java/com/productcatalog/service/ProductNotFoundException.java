@@ -0,0 +1,13 @@
+package com.productcatalog.service;
+
+/**
+ * A write or lookup addressed a product id that does not exist. Still an
+ * IllegalArgumentException, so callers that treat every bad argument alike keep working;
+ * endpoints that tell the two apart answer 404 for this and 400 for invalid input.
+ */
+public class ProductNotFoundException extends IllegalArgumentException {
+    
+    public ProductNotFoundException(Long productId) {
+        super("Product not found with id: " + productId);
+    }
+}
@@ -1,35 +1,71 @@
 package com.productcatalog.service;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import com.productcatalog.cache.CacheStats;
+import com.productcatalog.dto.BulkOperationResult;
+import com.productcatalog.dto.ChangeFeed;
+import com.productcatalog.dto.KeysetPage;
+import com.productcatalog.dto.ProductBatchResult;
+import com.productcatalog.dto.ProductFacets;
+import com.productcatalog.dto.ProductFilter;
 import com.productcatalog.dto.ProductDTO;
+import com.productcatalog.dto.StockReservationItem;
 import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductFields;
+import com.productcatalog.search.SearchOperator;
 
 public interface ProductService {
     
     Product createProduct(ProductDTO productDTO);
+    BulkOperationResult bulkSaveProducts(List<ProductDTO> productDTOs, boolean upsert);
     
     List<Product> getAllProducts();
+    void streamAllProducts(Consumer<Product> consumer);
     Page<Product> getAllProducts(Pageable pageable);
+    Page<Product> filterProducts(ProductFilter filter, Pageable pageable);
+    KeysetPage<Product> getProductsAfter(String cursor, int size, String sortBy, Sort.Direction direction, boolean includeCount);
     Optional<Product> getProductById(Long id);
     Optional<Product> getProductBySku(String sku);
+    ProductBatchResult getProducts(List<Long> ids, List<String> skus);
     List<Product> getProductsByCategory(String category);
     List<Product> getActiveProducts();
     List<Product> searchProducts(String keyword);
-    List<Product> getProductsByPriceRange(Double minPrice, Double maxPrice);
+    List<Product> searchProducts(String keyword, SearchOperator operator, int limit);
+    List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
+    List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, String category, boolean activeOnly);
     List<Product> getProductsWithMinimumStock(Integer minStock);
+    List<Product> getLowStockProducts(Integer maxStock, String category, String sku);
+    List<Map<String, Object>> getAllProducts(ProductFields fields);
+    List<Map<String, Object>> getProductsByCategory(String category, ProductFields fields);
+    List<Map<String, Object>> getActiveProducts(ProductFields fields);
+    List<Map<String, Object>> searchProducts(String keyword, SearchOperator operator, int limit, ProductFields fields);
+    List<Map<String, Object>> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, String category, boolean activeOnly, ProductFields fields);
+    ProductFacets getFacets(BigDecimal minPrice, BigDecimal maxPrice, String keyword, SearchOperator operator);
+    ChangeFeed getChanges(Long since, int limit);
     
     Product updateProduct(Long id, ProductDTO productDTO);
+    Product updateProduct(Long id, ProductDTO productDTO, Long expectedVersion);
     Product updateProductStock(Long id, Integer newStock);
+    Product decrementStock(Long id, int quantity);
+    Product incrementStock(Long id, int quantity);
+    List<Product> reserveStock(List<StockReservationItem> items);
     Product activateProduct(Long id);
     Product deactivateProduct(Long id);
     
     void deleteProduct(Long id);
+    void deleteProduct(Long id, Long expectedVersion);
     
     boolean isSkuUnique(String sku);
     boolean isSkuUniqueForUpdate(String sku, Long id);
+    
+    CacheStats getCacheStats();
 }
\ No newline at end of file
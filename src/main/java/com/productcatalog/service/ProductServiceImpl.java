@@ -1,24 +1,207 @@
 package com.productcatalog.service;
 
+import com.productcatalog.cache.CacheStats;
+import com.productcatalog.cache.CatalogSnapshot;
+import com.productcatalog.cache.ProductCache;
+import com.productcatalog.cache.ResponseCache;
+import com.productcatalog.dto.BulkOperationResult;
+import com.productcatalog.dto.BulkRowResult;
+import com.productcatalog.dto.KeysetPage;
+import com.productcatalog.dto.ProductBatchResult;
 import com.productcatalog.dto.ProductDTO;
+import com.productcatalog.dto.ProductFacets;
+import com.productcatalog.dto.ProductFilter;
+import com.productcatalog.dto.StockReservationItem;
+import com.productcatalog.dto.ChangeFeed;
+import com.productcatalog.dto.ProductChangeEvent;
 import com.productcatalog.entity.Product;
+import com.productcatalog.entity.ProductChange;
+import com.productcatalog.entity.ProductChangeType;
+import com.productcatalog.repository.ProductFields;
 import com.productcatalog.repository.ProductRepository;
+import com.productcatalog.repository.ProductSpecifications;
+import com.productcatalog.search.ProductFacetIndex;
+import com.productcatalog.search.ProductPriceIndex;
+import com.productcatalog.search.ProductSearchIndex;
+import com.productcatalog.search.ProductStockIndex;
+import com.productcatalog.search.SearchOperator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ProductServiceImpl implements ProductService {
     
+    private static final Logger log = LoggerFactory.getLogger(ProductServiceImpl.class);
+    
+    // Rows per SKU lookup and per flush/clear cycle; a multiple of hibernate.jdbc.batch_size
+    private static final int BULK_CHUNK_SIZE = 500;
+    
+    private static final int MAX_KEYSET_PAGE_SIZE = 1000;
+    
+    private static final int MAX_CHANGE_PAGE_SIZE = 1000;
+    
+    private static final int MAX_BATCH_LOOKUP_SIZE = 500;
+    
+    // Keeps IN lists short enough for the padded statement cache
+    private static final int LOOKUP_CHUNK_SIZE = 100;
+    
+    // Above this many index hits one range query replaces the chunked IN lookups
+    private static final int RANGE_QUERY_THRESHOLD = 1000;
+    
     @Autowired
     private ProductRepository productRepository;
     
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ProductSearchIndex searchIndex;
+    
+    @Autowired
+    private ProductPriceIndex priceIndex;
+    
+    @Autowired
+    private ProductFacetIndex facetIndex;
+    
+    @Autowired
+    private ProductCache productCache;
+    
+    @Autowired
+    private ResponseCache responseCache;
+    
+    @Autowired
+    private ReadCoalescer readCoalescer;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private StockLockStripes stockLocks;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ProductChangeLog changeLog;
+    
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+    
+    @Autowired
+    private ProductStockIndex stockIndex;
+    
+    @Autowired
+    private StockWatchRegistry stockWatches;
+    
+    @Autowired
+    private ProductWriteBehind writeBehind;
+    
+    // Runs ahead of the startup warm-up, which queries these indexes
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(readOnly = true)
+    public void loadIndexes() {
+        List<Product> products = productRepository.findAll();
+        searchIndex.rebuild(products);
+        priceIndex.rebuild(products);
+        facetIndex.rebuild(products);
+        stockIndex.rebuild(products);
+        catalogSnapshot.rebuild(products);
+    }
+    
+    // Counts are maintained incrementally; this only repairs drift, e.g. from direct SQL edits
+    @Scheduled(fixedDelayString = "${catalog.facets.reconcile-interval:5m}",
+               initialDelayString = "${catalog.facets.reconcile-interval:5m}")
+    @Transactional(readOnly = true)
+    public void reconcileFacets() {
+        // The index already counts pending write-behind updates the database does not have yet
+        if (writeBehind.hasPending()) {
+            return;
+        }
+        long version = facetIndex.version();
+        Map<String, Long> categories = new TreeMap<>();
+        Map<String, Long> brands = new TreeMap<>();
+        long total = 0;
+        long active = 0;
+        for (Object[] row : productRepository.countByCategoryBrandAndActive()) {
+            long count = (Long) row[3];
+            total += count;
+            if (!Boolean.FALSE.equals(row[2])) {
+                active += count;
+            }
+            if (row[0] != null) {
+                categories.merge((String) row[0], count, Long::sum);
+            }
+            if (row[1] != null) {
+                brands.merge((String) row[1], count, Long::sum);
+            }
+        }
+        ProductFacets expected = new ProductFacets(total, active, total - active, categories, brands);
+        if (expected.equals(facetIndex.counts()) || facetIndex.version() != version) {
+            return;
+        }
+        
+        log.warn("Facet counts drifted from the database, reloading facet index");
+        Map<Long, ProductFacetIndex.FacetKey> keys = new HashMap<>();
+        for (Object[] row : productRepository.findFacetKeys()) {
+            keys.put((Long) row[0], new ProductFacetIndex.FacetKey((String) row[1], (String) row[2], !Boolean.FALSE.equals(row[3])));
+        }
+        if (!facetIndex.replaceIfUnchanged(version, keys)) {
+            log.info("Facet index changed during reconciliation, retrying on next run");
+        }
+    }
+    
+    // Write-behind batches go through the same change log and index updates as any other write
+    @Scheduled(fixedDelayString = "${catalog.write-behind.flush-interval:1s}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flushPendingWrites() {
+        if (writeBehind.hasPending()) {
+            flushPending();
+        }
+    }
+    
     @Override
     public Product createProduct(ProductDTO productDTO) {
       
@@ -31,124 +214,611 @@ public class ProductServiceImpl implements ProductService {
         Product product = new Product();
         mapDTOToEntity(productDTO, product);
         
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        onProductSaved(savedProduct, ProductChangeType.CREATED);
+        return savedProduct;
     }
     
     @Override
-    @Transactional(readOnly = true)
+    public BulkOperationResult bulkSaveProducts(List<ProductDTO> productDTOs, boolean upsert) {
+        if (writeBehind.hasPending()) {
+            flushPending();
+        }
+        List<BulkRowResult> rows = new ArrayList<>(productDTOs.size());
+        List<Product> savedProducts = new ArrayList<>(productDTOs.size());
+        Set<String> seenSkus = new HashSet<>();
+        
+        for (int start = 0; start < productDTOs.size(); start += BULK_CHUNK_SIZE) {
+            List<Long> createdIds = new ArrayList<>();
+            List<Long> updatedIds = new ArrayList<>();
+            List<ProductDTO> chunk = productDTOs.subList(start, Math.min(start + BULK_CHUNK_SIZE, productDTOs.size()));
+            Set<String> chunkSkus = chunk.stream()
+                    .map(ProductDTO::getSku)
+                    .filter(sku -> sku != null && !sku.isEmpty())
+                    .collect(Collectors.toSet());
+            Map<String, Product> existingBySku = new HashMap<>();
+            if (!chunkSkus.isEmpty()) {
+                if (upsert) {
+                    productRepository.findBySkuIn(chunkSkus).forEach(p -> existingBySku.put(p.getSku(), p));
+                } else {
+                    productRepository.findExistingSkus(chunkSkus).forEach(sku -> existingBySku.put(sku, null));
+                }
+            }
+            
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = start + i;
+                ProductDTO dto = chunk.get(i);
+                String sku = dto.getSku() != null && !dto.getSku().isEmpty() ? dto.getSku() : null;
+                
+                Set<ConstraintViolation<ProductDTO>> violations = validator.validate(dto);
+                if (!violations.isEmpty()) {
+                    rows.add(BulkRowResult.failed(index, sku, violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; "))));
+                    continue;
+                }
+                if (sku != null && !seenSkus.add(sku)) {
+                    rows.add(BulkRowResult.failed(index, sku, "Duplicate SKU '" + sku + "' earlier in the same request."));
+                    continue;
+                }
+                
+                if (sku != null && existingBySku.containsKey(sku)) {
+                    if (!upsert) {
+                        rows.add(BulkRowResult.failed(index, sku, "SKU must be unique. Product with SKU '" + sku + "' already exists."));
+                        continue;
+                    }
+                    Product existing = existingBySku.get(sku);
+                    mapDTOToEntity(dto, existing);
+                    savedProducts.add(existing);
+                    updatedIds.add(existing.getId());
+                    rows.add(BulkRowResult.updated(index, sku, existing.getId()));
+                } else {
+                    Product product = new Product();
+                    mapDTOToEntity(dto, product);
+                    entityManager.persist(product);
+                    savedProducts.add(product);
+                    createdIds.add(product.getId());
+                    rows.add(BulkRowResult.created(index, sku, product.getId()));
+                }
+            }
+            
+            // Change entries go out with their chunk so the persistence context stays bounded
+            changeLog.appendAll(createdIds, ProductChangeType.CREATED);
+            changeLog.appendAll(updatedIds, ProductChangeType.UPDATED);
+            entityManager.flush();
+            entityManager.clear();
+        }
+        
+        onProductsSaved(savedProducts);
+        return new BulkOperationResult(rows);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        if (catalogSnapshot.isReady()) {
+            return withPending(catalogSnapshot.findAll());
+        }
+        return withPending(productRepository.findAll());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<Product> consumer) {
+        try (Stream<Product> products = productRepository.streamAllByOrderById()) {
+            products.forEach(product -> {
+                consumer.accept(withPending(product));
+                entityManager.detach(product);
+            });
+        }
     }
     
     @Override
     @Transactional(readOnly = true)
     public Page<Product> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable);
+        return productRepository.findAll(pageable).map(this::withPending);
     }
     
     @Override
     @Transactional(readOnly = true)
-    public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+    public Page<Product> filterProducts(ProductFilter filter, Pageable pageable) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null
+                && filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        return productRepository.findAll(ProductSpecifications.matching(filter), pageable).map(this::withPending);
     }
     
     @Override
     @Transactional(readOnly = true)
+    public KeysetPage<Product> getProductsAfter(String cursor, int size, String sortBy, Sort.Direction direction, boolean includeCount) {
+        if (size < 1 || size > MAX_KEYSET_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_KEYSET_PAGE_SIZE);
+        }
+        ProductSortField sortField = ProductSortField.fromProperty(sortBy);
+        Specification<Product> seek = (root, query, cb) -> null;
+        if (cursor != null && !cursor.isEmpty()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            if (position.sortField() != sortField || position.direction() != direction) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+            seek = seekAfter(position);
+        }
+        
+        Sort sort = sortField == ProductSortField.ID
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortField.getProperty()).and(Sort.by(direction, "id"));
+        List<Product> rows = productRepository.findBy(seek, query -> query.sortBy(sort).limit(size + 1).all());
+        
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            Product last = rows.get(size - 1);
+            nextCursor = new KeysetCursor(sortField, direction, sortField.valueOf(last), last.getId()).encode();
+        }
+        Long total = includeCount ? productRepository.count() : null;
+        return new KeysetPage<>(withPending(rows), size, nextCursor, total);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<Product> getProductById(Long id) {
+        return findCommittedById(id).map(this::withPending);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<Product> getProductBySku(String sku) {
-        return productRepository.findBySku(sku);
+        if (catalogSnapshot.isReady()) {
+            return Optional.ofNullable(withPending(catalogSnapshot.findBySku(sku)));
+        }
+        Product cached = productCache.getBySku(sku);
+        if (cached != null) {
+            return Optional.of(withPending(cached));
+        }
+        long loadedAt = productCache.generation();
+        Optional<Product> product = productRepository.findBySku(sku);
+        product.ifPresent(p -> productCache.put(p, loadedAt));
+        return product.map(this::withPending);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ProductBatchResult getProducts(List<Long> ids, List<String> skus) {
+        Set<Long> requestedIds = ids != null ? new LinkedHashSet<>(ids) : new LinkedHashSet<>();
+        Set<String> requestedSkus = skus != null ? new LinkedHashSet<>(skus) : new LinkedHashSet<>();
+        if (requestedIds.contains(null) || requestedSkus.contains(null)) {
+            throw new IllegalArgumentException("Ids and SKUs must not be null");
+        }
+        if (requestedIds.isEmpty() && requestedSkus.isEmpty()) {
+            throw new IllegalArgumentException("At least one id or SKU is required");
+        }
+        if (requestedIds.size() + requestedSkus.size() > MAX_BATCH_LOOKUP_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_LOOKUP_SIZE + " ids and SKUs can be requested at once");
+        }
+        
+        Map<Long, Product> byId = new HashMap<>();
+        List<Long> uncachedIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Product cached = catalogSnapshot.isReady() ? catalogSnapshot.findById(id) : productCache.getById(id);
+            if (cached != null) {
+                byId.put(id, cached);
+            } else {
+                uncachedIds.add(id);
+            }
+        }
+        Map<String, Product> bySku = new HashMap<>();
+        List<String> uncachedSkus = new ArrayList<>();
+        for (String sku : requestedSkus) {
+            Product cached = catalogSnapshot.isReady() ? catalogSnapshot.findBySku(sku) : productCache.getBySku(sku);
+            if (cached != null) {
+                bySku.put(sku, cached);
+            } else {
+                uncachedSkus.add(sku);
+            }
+        }
+        
+        if (catalogSnapshot.isReady()) {
+            // The snapshot holds the whole catalog, so anything it lacks does not exist
+            uncachedIds.clear();
+            uncachedSkus.clear();
+        }
+        for (int start = 0; start < uncachedIds.size(); start += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = uncachedIds.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, uncachedIds.size()));
+            long loadedAt = productCache.generation();
+            for (Product product : productRepository.findAllById(chunk)) {
+                productCache.put(product, loadedAt);
+                byId.put(product.getId(), product);
+            }
+        }
+        for (int start = 0; start < uncachedSkus.size(); start += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = uncachedSkus.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, uncachedSkus.size()));
+            long loadedAt = productCache.generation();
+            for (Product product : productRepository.findBySkuIn(chunk)) {
+                productCache.put(product, loadedAt);
+                bySku.put(product.getSku(), product);
+            }
+        }
+        
+        List<Product> products = new ArrayList<>(requestedIds.size() + requestedSkus.size());
+        List<Long> missingIds = new ArrayList<>();
+        List<String> missingSkus = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Product product = byId.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        for (String sku : requestedSkus) {
+            Product product = bySku.get(sku);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingSkus.add(sku);
+            }
+        }
+        return new ProductBatchResult(withPending(products), missingIds, missingSkus);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+        return readCoalescer.execute(ReadCoalescer.Operation.CATEGORY, Objects.toString(category), () -> {
+            if (catalogSnapshot.isReady()) {
+                return withPending(catalogSnapshot.findByCategory(category));
+            }
+            return withPending(productRepository.findByCategory(category));
+        });
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Product> getActiveProducts() {
-        return productRepository.findByIsActiveTrue();
+        return readCoalescer.execute(ReadCoalescer.Operation.ACTIVE, "", () -> {
+            List<Product> products = catalogSnapshot.isReady()
+                    ? catalogSnapshot.findActive()
+                    : productRepository.findByIsActiveTrue();
+            if (!writeBehind.hasPending()) {
+                return products;
+            }
+            // A pending deactivation drops the product before it is flushed
+            return withPending(products).stream()
+                    .filter(product -> Boolean.TRUE.equals(product.getIsActive()))
+                    .toList();
+        });
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Product> searchProducts(String keyword) {
-        return productRepository.searchProducts(keyword);
+        return searchProducts(keyword, SearchOperator.AND, 0);
     }
     
     @Override
-    @Transactional(readOnly = true)
-    public List<Product> getProductsByPriceRange(Double minPrice, Double maxPrice) {
-        return productRepository.findByPriceBetween(minPrice, maxPrice);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Product> searchProducts(String keyword, SearchOperator operator, int limit) {
+        return readCoalescer.execute(ReadCoalescer.Operation.SEARCH, Arrays.asList(keyword, operator, limit),
+                () -> withPending(searchIndex.search(keyword, operator, limit)));
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return getProductsByPriceRange(minPrice, maxPrice, null, false);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, String category, boolean activeOnly) {
+        return readCoalescer.execute(ReadCoalescer.Operation.PRICE_RANGE, Arrays.asList(minPrice, maxPrice, category, activeOnly),
+                () -> findAllByIdInOrder(priceIndex.findIds(minPrice, maxPrice, category, activeOnly),
+                        priceRange(minPrice, maxPrice, category, activeOnly)));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Product> getProductsWithMinimumStock(Integer minStock) {
-        return productRepository.findByStockQuantityGreaterThan(minStock);
+        if (minStock == null) {
+            return List.of();
+        }
+        return findAllByIdInOrder(stockIndex.findIdsWithStockGreaterThan(minStock),
+                ProductSpecifications.stockAtLeast(minStock + 1));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Product> getLowStockProducts(Integer maxStock, String category, String sku) {
+        if (maxStock == null || maxStock < 0) {
+            throw new IllegalArgumentException("maxStock must be 0 or more");
+        }
+        if (sku != null) {
+            return getProductBySku(sku)
+                    .filter(product -> product.getStockQuantity() != null && product.getStockQuantity() <= maxStock)
+                    .map(List::of)
+                    .orElse(List.of());
+        }
+        Specification<Product> range = ProductSpecifications.stockAtMost(maxStock);
+        if (category != null) {
+            range = range.and(ProductSpecifications.hasCategory(category));
+        }
+        return findAllByIdInOrder(stockIndex.findIdsWithStockAtMost(maxStock, category), range);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Map<String, Object>> getAllProducts(ProductFields fields) {
+        if (catalogSnapshot.isReady()) {
+            return project(catalogSnapshot.findAll(), fields);
+        }
+        return findFields(null, fields, Sort.by("id"));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Map<String, Object>> getProductsByCategory(String category, ProductFields fields) {
+        if (catalogSnapshot.isReady()) {
+            return project(catalogSnapshot.findByCategory(category), fields);
+        }
+        return findFields((root, query, cb) -> cb.equal(root.get("category"), category), fields, Sort.by("id"));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Map<String, Object>> getActiveProducts(ProductFields fields) {
+        if (catalogSnapshot.isReady()) {
+            return project(catalogSnapshot.findActive(), fields);
+        }
+        return findFields((root, query, cb) -> cb.isTrue(root.get("isActive")), fields, Sort.by("id"));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Map<String, Object>> searchProducts(String keyword, SearchOperator operator, int limit, ProductFields fields) {
+        return project(searchIndex.search(keyword, operator, limit), fields);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Map<String, Object>> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, String category,
+                                                             boolean activeOnly, ProductFields fields) {
+        if (catalogSnapshot.isReady()) {
+            return project(catalogSnapshot.findAllById(priceIndex.findIds(minPrice, maxPrice, category, activeOnly)), fields);
+        }
+        return findFieldsByIdInOrder(priceIndex.findIds(minPrice, maxPrice, category, activeOnly), fields,
+                priceRange(minPrice, maxPrice, category, activeOnly));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ProductFacets getFacets(BigDecimal minPrice, BigDecimal maxPrice, String keyword, SearchOperator operator) {
+        boolean byPrice = minPrice != null || maxPrice != null;
+        boolean byKeyword = keyword != null && !keyword.isBlank();
+        if (!byPrice && !byKeyword) {
+            return facetIndex.counts();
+        }
+        
+        long[] ids = null;
+        if (byPrice) {
+            ids = priceIndex.findIds(minPrice, maxPrice, null, false);
+        }
+        if (byKeyword) {
+            long[] matches = searchIndex.searchIds(keyword, operator, 0);
+            if (ids == null) {
+                ids = matches;
+            } else {
+                long[] inRange = ids.clone();
+                Arrays.sort(inRange);
+                ids = Arrays.stream(matches).filter(id -> Arrays.binarySearch(inRange, id) >= 0).toArray();
+            }
+        }
+        return facetIndex.counts(ids);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeFeed getChanges(Long since, int limit) {
+        if (limit < 1 || limit > MAX_CHANGE_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_CHANGE_PAGE_SIZE);
+        }
+        if (since == null) {
+            return new ChangeFeed(List.of(), changeLog.head(), false);
+        }
+        if (since < 0) {
+            throw new IllegalArgumentException("Cursor must not be negative");
+        }
+        
+        List<ProductChange> entries = changeLog.readAfter(since, limit + 1);
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+        long nextCursor = entries.isEmpty() ? since : entries.get(entries.size() - 1).getId();
+        
+        // Compact to the latest entry per product; a product created within the page stays CREATED
+        Map<Long, ProductChange> latest = new LinkedHashMap<>();
+        Set<Long> createdInPage = new HashSet<>();
+        for (ProductChange entry : entries) {
+            if (entry.getType() == ProductChangeType.CREATED) {
+                createdInPage.add(entry.getProductId());
+            }
+            latest.remove(entry.getProductId());
+            latest.put(entry.getProductId(), entry);
+        }
+        List<Long> liveIds = latest.values().stream()
+                .filter(entry -> entry.getType() != ProductChangeType.DELETED)
+                .map(ProductChange::getProductId)
+                .collect(Collectors.toList());
+        Map<Long, Product> productsById = new HashMap<>();
+        for (Product product : productRepository.findAllById(liveIds)) {
+            productsById.put(product.getId(), product);
+        }
+        
+        List<ProductChangeEvent> events = new ArrayList<>(latest.size());
+        for (ProductChange entry : latest.values()) {
+            Product product = productsById.get(entry.getProductId());
+            ProductChangeType type = entry.getType();
+            if (product == null) {
+                // Deleted by a change beyond this page
+                type = ProductChangeType.DELETED;
+            } else if (createdInPage.contains(entry.getProductId())) {
+                type = ProductChangeType.CREATED;
+            }
+            events.add(new ProductChangeEvent(entry.getId(), entry.getProductId(), type, entry.getChangedAt(), product));
+        }
+        return new ChangeFeed(events, nextCursor, hasMore);
     }
     
     @Override
     public Product updateProduct(Long id, ProductDTO productDTO) {
+        return updateProduct(id, productDTO, null);
+    }
+    
+    @Override
+    public Product updateProduct(Long id, ProductDTO productDTO, Long expectedVersion) {
+        flushPendingWrites(List.of(id));
         Optional<Product> existingProductOpt = productRepository.findById(id);
         if (existingProductOpt.isEmpty()) {
-            throw new IllegalArgumentException("Product not found with id: " + id);
+            throw new ProductNotFoundException(id);
         }
         
         Product existingProduct = existingProductOpt.get();
+        requireVersion(existingProduct, expectedVersion);
         
-        if (productDTO.getSku() != null && !productDTO.getSku().isEmpty()) {
+        if (productDTO.getSku() != null && !productDTO.getSku().isEmpty()
+                && !productDTO.getSku().equals(existingProduct.getSku())) {
             if (!isSkuUniqueForUpdate(productDTO.getSku(), id)) {
                 throw new IllegalArgumentException("SKU must be unique. Another product with SKU '" + productDTO.getSku() + "' already exists.");
             }
         }
         
         mapDTOToEntity(productDTO, existingProduct);
-        return productRepository.save(existingProduct);
+        Product savedProduct = productRepository.save(existingProduct);
+        onProductSaved(savedProduct, ProductChangeType.UPDATED);
+        return savedProduct;
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Product updateProductStock(Long id, Integer newStock) {
-        Optional<Product> productOpt = productRepository.findById(id);
-        if (productOpt.isEmpty()) {
-            throw new IllegalArgumentException("Product not found with id: " + id);
+        if (newStock == null || newStock < 0) {
+            throw new IllegalArgumentException("Stock quantity cannot be negative");
+        }
+        if (writeBehind.isEnabled()) {
+            return enqueuePendingWrite(id, newStock, null);
+        }
+        return stockLocks.withLock(id, () -> transactionTemplate.execute(status -> {
+            if (productRepository.setStock(id, newStock, LocalDateTime.now()) == 0) {
+                throw new ProductNotFoundException(id);
+            }
+            return reloadAfterStockChange(id);
+        }));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Product decrementStock(Long id, int quantity) {
+        requirePositiveQuantity(quantity);
+        flushPendingWrites(List.of(id));
+        return stockLocks.withLock(id, () -> transactionTemplate.execute(status -> {
+            if (productRepository.decrementStock(id, quantity, LocalDateTime.now()) == 0) {
+                throw stockFailure(id, quantity);
+            }
+            return reloadAfterStockChange(id);
+        }));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Product incrementStock(Long id, int quantity) {
+        requirePositiveQuantity(quantity);
+        flushPendingWrites(List.of(id));
+        return stockLocks.withLock(id, () -> transactionTemplate.execute(status -> {
+            if (productRepository.incrementStock(id, quantity, LocalDateTime.now()) == 0) {
+                throw new ProductNotFoundException(id);
+            }
+            return reloadAfterStockChange(id);
+        }));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Product> reserveStock(List<StockReservationItem> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one reservation item is required");
+        }
+        // Merge repeated lines and update rows in id order so concurrent carts lock consistently
+        TreeMap<Long, Integer> quantities = new TreeMap<>();
+        for (StockReservationItem item : items) {
+            if (item.getProductId() == null || item.getQuantity() == null) {
+                throw new IllegalArgumentException("Each reservation item needs a productId and quantity");
+            }
+            requirePositiveQuantity(item.getQuantity());
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
         }
         
-        Product product = productOpt.get();
-        product.setStockQuantity(newStock);
-        return productRepository.save(product);
+        flushPendingWrites(quantities.keySet());
+        return stockLocks.withLocks(quantities.keySet(), () -> transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                if (productRepository.decrementStock(entry.getKey(), entry.getValue(), now) == 0) {
+                    throw stockFailure(entry.getKey(), entry.getValue());
+                }
+            }
+            List<Product> reserved = new ArrayList<>(quantities.size());
+            for (Long id : quantities.keySet()) {
+                reserved.add(reloadAfterStockChange(id));
+            }
+            return reserved;
+        }));
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Product activateProduct(Long id) {
-        Optional<Product> productOpt = productRepository.findById(id);
-        if (productOpt.isEmpty()) {
-            throw new IllegalArgumentException("Product not found with id: " + id);
+        if (writeBehind.isEnabled()) {
+            return enqueuePendingWrite(id, null, true);
         }
-        
-        Product product = productOpt.get();
-        product.setIsActive(true);
-        return productRepository.save(product);
+        return transactionTemplate.execute(status -> setActive(id, true));
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Product deactivateProduct(Long id) {
+        if (writeBehind.isEnabled()) {
+            return enqueuePendingWrite(id, null, false);
+        }
+        return transactionTemplate.execute(status -> setActive(id, false));
+    }
+    
+    private Product setActive(Long id, boolean active) {
         Optional<Product> productOpt = productRepository.findById(id);
         if (productOpt.isEmpty()) {
-            throw new IllegalArgumentException("Product not found with id: " + id);
+            throw new ProductNotFoundException(id);
         }
         
         Product product = productOpt.get();
-        product.setIsActive(false);
-        return productRepository.save(product);
+        product.setIsActive(active);
+        Product savedProduct = productRepository.save(product);
+        onProductSaved(savedProduct, ProductChangeType.UPDATED);
+        return savedProduct;
     }
     
     @Override
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new IllegalArgumentException("Product not found with id: " + id);
-        }
-        productRepository.deleteById(id);
+        deleteProduct(id, null);
+    }
+    
+    @Override
+    public void deleteProduct(Long id, Long expectedVersion) {
+        flushPendingWrites(List.of(id));
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+        requireVersion(product, expectedVersion);
+        productRepository.delete(product);
+        onProductDeleted(id);
     }
     
     @Override
@@ -156,6 +826,9 @@ public class ProductServiceImpl implements ProductService {
         if (sku == null || sku.isEmpty()) {
             return true; 
         }
+        if (productCache.getBySku(sku) != null) {
+            return false;
+        }
         return !productRepository.existsBySku(sku);
     }
     
@@ -164,10 +837,331 @@ public class ProductServiceImpl implements ProductService {
         if (sku == null || sku.isEmpty()) {
             return true;
         }
+        Product cached = productCache.getBySku(sku);
+        if (cached != null) {
+            return cached.getId().equals(id);
+        }
         return !productRepository.existsBySkuAndIdNot(sku, id);
     }
     
-    private void mapDTOToEntity(ProductDTO dto, Product entity) {
+    @Override
+    public CacheStats getCacheStats() {
+        return productCache.stats();
+    }
+    
+    // (sortValue, id) strictly after the cursor position in the requested direction
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Specification<Product> seekAfter(KeysetCursor position) {
+        boolean ascending = position.direction().isAscending();
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            Predicate idAfter = ascending ? cb.greaterThan(id, position.lastId()) : cb.lessThan(id, position.lastId());
+            if (position.sortField() == ProductSortField.ID) {
+                return idAfter;
+            }
+            Path field = root.get(position.sortField().getProperty());
+            Comparable value = position.lastValue();
+            Predicate valueAfter = ascending ? cb.greaterThan(field, value) : cb.lessThan(field, value);
+            return cb.or(valueAfter, cb.and(cb.equal(field, value), idAfter));
+        };
+    }
+    
+    private static void requireVersion(Product product, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new StaleProductException(product.getId(), expectedVersion, product.getVersion());
+        }
+    }
+    
+    private Product reloadAfterStockChange(Long id) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+        onProductSaved(product, ProductChangeType.UPDATED);
+        return product;
+    }
+    
+    private RuntimeException stockFailure(Long id, int quantity) {
+        if (!productRepository.existsById(id)) {
+            return new ProductNotFoundException(id);
+        }
+        return new InsufficientStockException(id, quantity);
+    }
+    
+    private static void requirePositiveQuantity(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+    }
+    
+    /**
+     * Loads the products for ids taken from an in-memory index, in index order. Past
+     * RANGE_QUERY_THRESHOLD ids the rows come from one query over range, the database
+     * predicate the index answered, instead of one IN lookup per LOOKUP_CHUNK_SIZE ids;
+     * ids the range query misses (a pending write moved them) are still looked up by id.
+     */
+    private List<Product> findAllByIdInOrder(long[] ids, Specification<Product> range) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        if (catalogSnapshot.isReady()) {
+            return withPending(catalogSnapshot.findAllById(ids));
+        }
+        Map<Long, Product> productsById = new HashMap<>();
+        if (ids.length > RANGE_QUERY_THRESHOLD) {
+            for (Product product : productRepository.findAll(range)) {
+                productsById.put(product.getId(), product);
+            }
+        }
+        List<Long> idList = new ArrayList<>();
+        for (long id : ids) {
+            if (!productsById.containsKey(id)) {
+                idList.add(id);
+            }
+        }
+        for (int start = 0; start < idList.size(); start += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = idList.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, idList.size()));
+            for (Product product : productRepository.findAllById(chunk)) {
+                productsById.put(product.getId(), product);
+            }
+        }
+        List<Product> products = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Product product = productsById.get(id);
+            if (product != null) {
+                products.add(withPending(product));
+            }
+        }
+        return products;
+    }
+    
+    private List<Map<String, Object>> project(List<Product> products, ProductFields fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(products.size());
+        for (Product product : products) {
+            rows.add(fields.project(withPending(product)));
+        }
+        return rows;
+    }
+    
+    // The database form of a price index lookup, for findAllByIdInOrder's range query
+    private static Specification<Product> priceRange(BigDecimal minPrice, BigDecimal maxPrice, String category, boolean activeOnly) {
+        List<Specification<Product>> specs = new ArrayList<>();
+        if (category != null) {
+            specs.add(ProductSpecifications.hasCategory(category));
+        }
+        if (activeOnly) {
+            specs.add(ProductSpecifications.isActive(true));
+        }
+        if (minPrice != null || maxPrice != null) {
+            specs.add(ProductSpecifications.priceBetween(minPrice, maxPrice));
+        }
+        return Specification.allOf(specs);
+    }
+    
+    // Same lookup as findAllByIdInOrder, reading only the selected columns
+    private List<Map<String, Object>> findFieldsByIdInOrder(long[] ids, ProductFields fields, Specification<Product> range) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        Map<Object, Map<String, Object>> rowsById = new HashMap<>();
+        ProductFields selected = fields.including("id").including("updatedAt");
+        if (ids.length > RANGE_QUERY_THRESHOLD) {
+            for (Map<String, Object> row : productRepository.findFields(range, selected, Sort.unsorted())) {
+                rowsById.put(row.get("id"), row);
+            }
+        }
+        List<Long> idList = new ArrayList<>();
+        for (long id : ids) {
+            if (!rowsById.containsKey(id)) {
+                idList.add(id);
+            }
+        }
+        for (int start = 0; start < idList.size(); start += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = idList.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, idList.size()));
+            for (Map<String, Object> row : productRepository.findFields(
+                    (root, query, cb) -> root.get("id").in(chunk), selected, Sort.unsorted())) {
+                rowsById.put(row.get("id"), row);
+            }
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Map<String, Object> row = rowsById.get(id);
+            if (row != null) {
+                applyPending(row, fields);
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+    
+    // Pending write-behind rows need their id and updatedAt for the overlay, even when the caller did not select them
+    private List<Map<String, Object>> findFields(Specification<Product> spec, ProductFields fields, Sort sort) {
+        if (!writeBehind.hasPending()) {
+            return productRepository.findFields(spec, fields, sort);
+        }
+        List<Map<String, Object>> rows = productRepository.findFields(spec, fields.including("id").including("updatedAt"), sort);
+        for (Map<String, Object> row : rows) {
+            applyPending(row, fields);
+        }
+        return rows;
+    }
+    
+    private void applyPending(Map<String, Object> row, ProductFields fields) {
+        ProductWriteBehind.PendingWrite pending = writeBehind.pending((Long) row.get("id"), (LocalDateTime) row.get("updatedAt"));
+        if (pending != null) {
+            pending.applyTo(row);
+        }
+        if (!fields.contains("id")) {
+            row.remove("id");
+        }
+        if (!fields.contains("updatedAt")) {
+            row.remove("updatedAt");
+        }
+    }
+    
+    // Reads show acknowledged write-behind updates before they are flushed
+    private Product withPending(Product product) {
+        ProductWriteBehind.PendingWrite pending = product != null
+                ? writeBehind.pending(product.getId(), product.getUpdatedAt())
+                : null;
+        return pending != null ? pending.applyTo(product) : product;
+    }
+    
+    private List<Product> withPending(List<Product> products) {
+        if (!writeBehind.hasPending()) {
+            return products;
+        }
+        List<Product> result = new ArrayList<>(products.size());
+        for (Product product : products) {
+            result.add(withPending(product));
+        }
+        return result;
+    }
+    
+    // The committed row without write-behind overlays, from the snapshot or cache when warm
+    private Optional<Product> findCommittedById(Long id) {
+        if (catalogSnapshot.isReady()) {
+            return Optional.ofNullable(id != null ? catalogSnapshot.findById(id) : null);
+        }
+        Product cached = productCache.getById(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = productCache.generation();
+        Optional<Product> product = productRepository.findById(id);
+        product.ifPresent(p -> productCache.put(p, loadedAt));
+        return product;
+    }
+    
+    // Acknowledged once journaled. The stock, price and facet indexes take the overlaid product right away,
+    // under the product's stock lock so concurrent updates index in journal order.
+    private Product enqueuePendingWrite(Long id, Integer stock, Boolean active) {
+        Product committed = findCommittedById(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+        Product pending = stockLocks.withLock(id, () -> {
+            writeBehind.enqueue(id, stock, active);
+            Product overlaid = withPending(committed);
+            indexVisible(List.of(overlaid));
+            return overlaid;
+        });
+        readCoalescer.invalidate();
+        responseCache.invalidate(List.of(pending));
+        return pending;
+    }
+    
+    // Index-driven reads must agree with what withPending shows, so these indexes see pending overlays too
+    private void indexVisible(List<Product> products) {
+        priceIndex.indexAll(products);
+        facetIndex.indexAll(products);
+        stockWatches.publish(stockIndex.indexAll(products));
+    }
+    
+    // Synchronous writes apply pending updates for their products first, so a later flush cannot overwrite them
+    private void flushPendingWrites(Collection<Long> ids) {
+        if (writeBehind.hasPending(ids)) {
+            flushPending();
+        }
+    }
+    
+    private void flushPending() {
+        transactionTemplate.executeWithoutResult(status -> {
+            ProductWriteBehind.Batch batch = writeBehind.drain();
+            if (batch == null) {
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completionStatus) {
+                    if (completionStatus == STATUS_COMMITTED) {
+                        writeBehind.complete(batch);
+                    } else {
+                        writeBehind.restore(batch);
+                    }
+                }
+            });
+            List<Long> updatedIds = writeBehind.apply(batch.writes());
+            changeLog.appendAll(updatedIds, ProductChangeType.UPDATED);
+            List<Product> products = new ArrayList<>(updatedIds.size());
+            for (int start = 0; start < updatedIds.size(); start += LOOKUP_CHUNK_SIZE) {
+                products.addAll(productRepository.findAllById(updatedIds.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, updatedIds.size()))));
+            }
+            onProductsSaved(products);
+        });
+    }
+    
+    private void onProductSaved(Product product, ProductChangeType change) {
+        changeLog.append(product.getId(), change);
+        onProductsSaved(List.of(product));
+    }
+    
+    private void onProductsSaved(List<Product> products) {
+        products.forEach(product -> invalidateCache(product.getId(), product.getSku()));
+        afterCommit(() -> {
+            products.forEach(product -> {
+                invalidateCache(product.getId(), product.getSku());
+                searchIndex.index(product);
+            });
+            indexVisible(withPending(products));
+            catalogSnapshot.upsertAll(products);
+            readCoalescer.invalidate();
+            responseCache.invalidate(products);
+        });
+    }
+    
+    private void onProductDeleted(Long id) {
+        changeLog.append(id, ProductChangeType.DELETED);
+        productCache.evict(id);
+        afterCommit(() -> {
+            productCache.evict(id);
+            searchIndex.remove(id);
+            priceIndex.remove(id);
+            facetIndex.remove(id);
+            stockIndex.remove(id);
+            catalogSnapshot.remove(id);
+            readCoalescer.invalidate();
+            responseCache.invalidate(id);
+        });
+    }
+    
+    // Evicting by id also drops the entry's previous SKU mapping
+    private void invalidateCache(Long id, String sku) {
+        productCache.evict(id);
+        productCache.evictSku(sku);
+    }
+    
+    // In-memory indexes only see committed state, so a rolled back write never leaks into them
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    void mapDTOToEntity(ProductDTO dto, Product entity) {
         entity.setName(dto.getName());
         entity.setDescription(dto.getDescription());
         entity.setPrice(dto.getPrice());
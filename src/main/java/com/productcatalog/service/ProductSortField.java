@@ -0,0 +1,53 @@
+package com.productcatalog.service;
+
+import com.productcatalog.entity.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Sort keys supported by keyset pagination. Only non-null columns qualify, since a seek
+ * predicate cannot step over NULLs.
+ */
+public enum ProductSortField {
+    ID("id", Product::getId, Long::valueOf),
+    NAME("name", Product::getName, Function.identity()),
+    PRICE("price", Product::getPrice, BigDecimal::new),
+    STOCK_QUANTITY("stockQuantity", Product::getStockQuantity, Integer::valueOf),
+    CATEGORY("category", Product::getCategory, Function.identity()),
+    CREATED_AT("createdAt", Product::getCreatedAt, LocalDateTime::parse),
+    UPDATED_AT("updatedAt", Product::getUpdatedAt, LocalDateTime::parse);
+    
+    private final String property;
+    private final Function<Product, ? extends Comparable<?>> extractor;
+    private final Function<String, ? extends Comparable<?>> parser;
+    
+    ProductSortField(String property, Function<Product, ? extends Comparable<?>> extractor,
+                     Function<String, ? extends Comparable<?>> parser) {
+        this.property = property;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+    
+    public String getProperty() {
+        return property;
+    }
+    
+    public Comparable<?> valueOf(Product product) {
+        return extractor.apply(product);
+    }
+    
+    public Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+    
+    public static ProductSortField fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported sort field: " + property
+                        + ". Supported fields: " + Arrays.toString(Arrays.stream(values()).map(f -> f.property).toArray())));
+    }
+}
@@ -0,0 +1,487 @@
+package com.productcatalog.service;
+
+import com.productcatalog.entity.Product;
+import com.productcatalog.entity.ProductChangeType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Opt-in write-behind for stock and active-flag updates. An update is acknowledged once it is
+ * appended to a local journal and fsynced; repeated updates to the same product coalesce in
+ * memory until the service flushes them as one batched JDBC UPDATE. Each update carries a
+ * strictly increasing timestamp that becomes the row's updated_at, and the UPDATE only applies
+ * over an older updated_at, so replaying a journal after a crash is idempotent and can never
+ * undo a later synchronous write.
+ */
+@Component
+public class ProductWriteBehind implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductWriteBehind.class);
+
+    private static final String APPLY_SQL = "UPDATE products SET stock_quantity = COALESCE(?, stock_quantity), "
+            + "is_active = COALESCE(?, is_active), updated_at = ?, version = version + ? "
+            + "WHERE id = ? AND (updated_at IS NULL OR updated_at < ?)";
+
+    private static final int[] APPLY_TYPES = { Types.INTEGER, Types.BOOLEAN, Types.TIMESTAMP, Types.INTEGER, Types.BIGINT, Types.TIMESTAMP };
+
+    // product id, field, value, epoch micros, CRC32C of the preceding bytes
+    private static final int RECORD_SIZE = 8 + 1 + 4 + 8 + 4;
+    private static final byte STOCK_FIELD = 1;
+    private static final byte ACTIVE_FIELD = 2;
+
+    /**
+     * Coalesced pending values for one product; a null field is left unchanged. updates counts the
+     * acknowledged updates merged here, and the version advances by that much, so every
+     * acknowledged update reads with its own version and ETag.
+     */
+    public record PendingWrite(long productId, Integer stock, Boolean active, LocalDateTime updatedAt, int updates) {
+
+        PendingWrite(long productId, Integer stock, Boolean active, LocalDateTime updatedAt) {
+            this(productId, stock, active, updatedAt, 1);
+        }
+
+        PendingWrite then(PendingWrite newer) {
+            return new PendingWrite(productId, newer.stock != null ? newer.stock : stock,
+                    newer.active != null ? newer.active : active, newer.updatedAt, updates + newer.updates);
+        }
+
+        /** The product as it will read once flushed; rows that already carry this write are returned as-is. */
+        public Product applyTo(Product product) {
+            if (product.getUpdatedAt() != null && !product.getUpdatedAt().isBefore(updatedAt)) {
+                return product;
+            }
+            Product pending = new Product(product);
+            if (stock != null) {
+                pending.setStockQuantity(stock);
+            }
+            if (active != null) {
+                pending.setIsActive(active);
+            }
+            pending.setUpdatedAt(updatedAt);
+            if (product.getVersion() != null) {
+                pending.setVersion(product.getVersion() + updates);
+            }
+            return pending;
+        }
+
+        public void applyTo(Map<String, Object> row) {
+            Object updatedAt = row.get("updatedAt");
+            if (updatedAt instanceof LocalDateTime current && !current.isBefore(this.updatedAt)) {
+                return;
+            }
+            if (stock != null && row.containsKey("stockQuantity")) {
+                row.put("stockQuantity", stock);
+            }
+            if (active != null && row.containsKey("isActive")) {
+                row.put("isActive", active);
+            }
+            if (row.containsKey("updatedAt")) {
+                row.put("updatedAt", this.updatedAt);
+            }
+            if (row.get("version") instanceof Long version) {
+                row.put("version", version + updates);
+            }
+        }
+    }
+
+    /** Pending writes taken out for one flush, with the journal segments that hold them. */
+    public static final class Batch {
+        private final Map<Long, PendingWrite> writes;
+        private final List<Long> segments;
+
+        private Batch(Map<Long, PendingWrite> writes, List<Long> segments) {
+            this.writes = writes;
+            this.segments = segments;
+        }
+
+        public Collection<PendingWrite> writes() {
+            return writes.values();
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductChangeLog changeLog;
+    private final boolean enabled;
+    private final boolean fsync;
+    private final Path directory;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Object syncLock = new Object();
+    private volatile ConcurrentHashMap<Long, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final List<Batch> inFlight = new CopyOnWriteArrayList<>();
+    // Guarded by appendLock
+    private FileChannel journal;
+    private long segment;
+    private long written;
+    private LocalDateTime lastTimestamp = LocalDateTime.MIN;
+    private final List<Long> carriedSegments = new ArrayList<>();
+    private final TreeMap<Long, Boolean> sealedSegments = new TreeMap<>();
+    // Guarded by syncLock
+    private long synced;
+
+    public ProductWriteBehind(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ProductChangeLog changeLog,
+                              @Value("${catalog.write-behind.enabled:false}") boolean enabled,
+                              @Value("${catalog.write-behind.fsync:true}") boolean fsync,
+                              @Value("${catalog.write-behind.dir:${catalog.data-dir:./data}/write-behind}") Path directory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.changeLog = changeLog;
+        this.enabled = enabled;
+        this.fsync = fsync;
+        this.directory = directory;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Replays journals left by a previous run before the application takes traffic. */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Path> leftovers = segmentFiles();
+        if (!leftovers.isEmpty()) {
+            Map<Long, PendingWrite> writes = new HashMap<>();
+            for (Path file : leftovers) {
+                readSegment(file, writes);
+            }
+            int applied = transactionTemplate.execute(status -> {
+                List<Long> updated = apply(writes.values());
+                changeLog.appendAll(updated, ProductChangeType.UPDATED);
+                return updated.size();
+            });
+            log.info("Replayed {} pending product writes from {} journal segments, {} applied",
+                    writes.size(), leftovers.size(), applied);
+            for (Path file : leftovers) {
+                deleteQuietly(file);
+            }
+            segment = segmentNumber(leftovers.get(leftovers.size() - 1));
+        }
+        if (enabled) {
+            appendLock.lock();
+            try {
+                openSegment(segment + 1);
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Journals and queues an update, returning once it is durable. Either value may be null
+     * to leave that field alone.
+     */
+    public PendingWrite enqueue(long productId, Integer stock, Boolean active) {
+        if (!enabled) {
+            throw new IllegalStateException("Write-behind is not enabled");
+        }
+        PendingWrite merged;
+        long position;
+        appendLock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            lastTimestamp = now.isAfter(lastTimestamp) ? now : lastTimestamp.plus(1, ChronoUnit.MICROS);
+            ByteBuffer records = ByteBuffer.allocate(RECORD_SIZE * 2);
+            if (stock != null) {
+                putRecord(records, productId, STOCK_FIELD, stock, lastTimestamp);
+            }
+            if (active != null) {
+                putRecord(records, productId, ACTIVE_FIELD, active ? 1 : 0, lastTimestamp);
+            }
+            records.flip();
+            while (records.hasRemaining()) {
+                journal.write(records);
+            }
+            merged = pending.merge(productId, new PendingWrite(productId, stock, active, lastTimestamp), PendingWrite::then);
+            position = ++written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the write-behind journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+        sync(position);
+        return merged;
+    }
+
+    /** Pending values for a product, including those of a flush that has not committed yet. */
+    public PendingWrite pending(Long productId) {
+        return pending(productId, null);
+    }
+
+    /**
+     * Pending values for a product newer than appliedThrough, the updatedAt of the row they will
+     * be laid over. A flushed batch the row already carries is left out, so its updates are not
+     * counted twice in the version.
+     */
+    public PendingWrite pending(Long productId, LocalDateTime appliedThrough) {
+        if (productId == null || !hasPending()) {
+            return null;
+        }
+        PendingWrite result = null;
+        for (Batch batch : inFlight) {
+            result = merge(result, batch.writes.get(productId), appliedThrough);
+        }
+        return merge(result, pending.get(productId), appliedThrough);
+    }
+
+    private static PendingWrite merge(PendingWrite result, PendingWrite write, LocalDateTime appliedThrough) {
+        if (write == null || (appliedThrough != null && !appliedThrough.isBefore(write.updatedAt()))) {
+            return result;
+        }
+        return result == null ? write : result.then(write);
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty() || !inFlight.isEmpty();
+    }
+
+    public boolean hasPending(Collection<Long> productIds) {
+        if (!hasPending()) {
+            return false;
+        }
+        for (Long productId : productIds) {
+            if (pending(productId) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Takes everything pending for a flush and starts a new journal segment; the batch's
+     * segments are deleted once it commits. Returns null when nothing is pending.
+     */
+    public Batch drain() {
+        synchronized (syncLock) {
+            appendLock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return null;
+                }
+                journal.force(false);
+                synced = written;
+                journal.close();
+                List<Long> segments = new ArrayList<>(carriedSegments);
+                segments.add(segment);
+                carriedSegments.clear();
+                segments.forEach(number -> sealedSegments.putIfAbsent(number, false));
+                Batch batch = new Batch(pending, segments);
+                pending = new ConcurrentHashMap<>();
+                inFlight.add(batch);
+                openSegment(segment + 1);
+                return batch;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not rotate the write-behind journal", e);
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Runs the batch as one JDBC batch UPDATE in the caller's transaction, in id order so
+     * concurrent flushes lock rows consistently. Returns the ids whose rows changed.
+     */
+    public List<Long> apply(Collection<PendingWrite> writes) {
+        List<PendingWrite> ordered = new ArrayList<>(writes);
+        ordered.sort(Comparator.comparingLong(PendingWrite::productId));
+        List<Object[]> args = new ArrayList<>(ordered.size());
+        for (PendingWrite write : ordered) {
+            Timestamp at = Timestamp.valueOf(write.updatedAt());
+            args.add(new Object[] { write.stock(), write.active(), at, write.updates(), write.productId(), at });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(APPLY_SQL, args, APPLY_TYPES);
+        List<Long> updated = new ArrayList<>(ordered.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                updated.add(ordered.get(i).productId());
+            }
+        }
+        return updated;
+    }
+
+    /** The batch committed: drop it from the overlay and delete journal segments no longer needed. */
+    public void complete(Batch batch) {
+        inFlight.remove(batch);
+        appendLock.lock();
+        try {
+            batch.segments.forEach(number -> sealedSegments.put(number, true));
+            while (!sealedSegments.isEmpty() && sealedSegments.firstEntry().getValue()) {
+                deleteQuietly(segmentFile(sealedSegments.pollFirstEntry().getKey()));
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /** The batch rolled back: requeue its writes under anything newer and keep its segments for the next batch. */
+    public void restore(Batch batch) {
+        appendLock.lock();
+        try {
+            batch.writes.forEach((productId, write) ->
+                    pending.merge(productId, write, (newer, failed) -> failed.then(newer)));
+            carriedSegments.addAll(batch.segments);
+        } finally {
+            appendLock.unlock();
+        }
+        inFlight.remove(batch);
+    }
+
+    @PreDestroy
+    public void close() {
+        appendLock.lock();
+        try {
+            if (journal != null && journal.isOpen()) {
+                journal.force(false);
+                journal.close();
+            }
+        } catch (IOException e) {
+            log.warn("Could not close the write-behind journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Group commit: one fsync covers every record written before it, so concurrent callers share it
+    private void sync(long position) {
+        if (!fsync) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            FileChannel channel;
+            appendLock.lock();
+            try {
+                target = written;
+                channel = journal;
+            } finally {
+                appendLock.unlock();
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not sync the write-behind journal", e);
+            }
+            synced = target;
+        }
+    }
+
+    private void openSegment(long number) {
+        try {
+            Files.createDirectories(directory);
+            journal = FileChannel.open(segmentFile(number),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segment = number;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open write-behind journal in " + directory, e);
+        }
+    }
+
+    private static void putRecord(ByteBuffer buffer, long productId, byte field, int value, LocalDateTime at) {
+        int start = buffer.position();
+        long micros = ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), at);
+        buffer.putLong(productId).put(field).putInt(value).putLong(micros);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), start, RECORD_SIZE - 4);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    // A torn record at the tail (crash mid-append) ends the segment; it was never acknowledged
+    private void readSegment(Path file, Map<Long, PendingWrite> writes) {
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read write-behind journal " + file, e);
+        }
+        LocalDateTime epoch = LocalDateTime.of(1970, 1, 1, 0, 0);
+        while (buffer.remaining() >= RECORD_SIZE) {
+            int start = buffer.position();
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.array(), start, RECORD_SIZE - 4);
+            long productId = buffer.getLong();
+            byte field = buffer.get();
+            int value = buffer.getInt();
+            LocalDateTime at = epoch.plus(buffer.getLong(), ChronoUnit.MICROS);
+            if (buffer.getInt() != (int) crc.getValue()) {
+                log.warn("Ignoring corrupt write-behind record at offset {} of {}", start, file);
+                return;
+            }
+            // Both fields of one acknowledged update share its timestamp and count once
+            PendingWrite write = field == STOCK_FIELD
+                    ? new PendingWrite(productId, value, null, at)
+                    : new PendingWrite(productId, null, value != 0, at);
+            writes.merge(productId, write, (earlier, later) -> earlier.updatedAt().equals(later.updatedAt())
+                    ? earlier.then(new PendingWrite(productId, later.stock(), later.active(), at, 0))
+                    : earlier.then(later));
+        }
+    }
+
+    private List<Path> segmentFiles() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("journal-\\d+\\.log"))
+                    .sorted(Comparator.comparingLong(ProductWriteBehind::segmentNumber))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list write-behind journals in " + directory, e);
+        }
+    }
+
+    private Path segmentFile(long number) {
+        return directory.resolve(String.format("journal-%020d.log", number));
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length()));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete write-behind journal {}", file, e);
+        }
+    }
+}
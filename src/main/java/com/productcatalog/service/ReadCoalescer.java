@@ -0,0 +1,110 @@
+package com.productcatalog.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for identical concurrent reads. The first caller for a key runs the query;
+ * callers arriving while it is in flight wait for it and receive the same result object, so
+ * results must be treated as read-only. Nothing is kept once the call completes, so this
+ * works with or without the caches. A committed write starts a new epoch: reads that begin
+ * after it never join a call that started before it.
+ */
+@Component
+public class ReadCoalescer {
+
+    public enum Operation { CATEGORY, ACTIVE, SEARCH, PRICE_RANGE }
+
+    private record Key(Operation operation, Object arguments, long epoch) {
+    }
+
+    private final boolean enabled;
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private volatile long epoch;
+
+    private final Map<Operation, LongAdder> calls = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> collapsed = new EnumMap<>(Operation.class);
+
+    public ReadCoalescer(@Value("${catalog.coalescing.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        for (Operation operation : Operation.values()) {
+            calls.put(operation, new LongAdder());
+            collapsed.put(operation, new LongAdder());
+        }
+    }
+
+    /** Runs the loader, or joins the identical call already in flight; arguments must implement equals. */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Operation operation, Object arguments, Supplier<T> loader) {
+        calls.get(operation).increment();
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(operation, arguments, epoch);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            collapsed.get(operation).increment();
+            return (T) join(leader);
+        }
+        try {
+            T result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /** Called after a write commits, so later reads start a fresh call instead of joining an older one. */
+    public void invalidate() {
+        synchronized (this) {
+            epoch++;
+        }
+    }
+
+    public long calls(Operation operation) {
+        return calls.get(operation).sum();
+    }
+
+    public long collapsed(Operation operation) {
+        return collapsed.get(operation).sum();
+    }
+
+    // Followers see the leader's exception as their own
+    private static Object join(CompletableFuture<Object> leader) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return leader.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException runtime) {
+                        throw runtime;
+                    }
+                    if (e.getCause() instanceof Error error) {
+                        throw error;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
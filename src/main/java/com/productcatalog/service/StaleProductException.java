@@ -0,0 +1,9 @@
+package com.productcatalog.service;
+
+public class StaleProductException extends RuntimeException {
+    
+    public StaleProductException(Long productId, Long expectedVersion, Long currentVersion) {
+        super("Product " + productId + " was modified: expected version " + expectedVersion
+                + " but found " + currentVersion);
+    }
+}
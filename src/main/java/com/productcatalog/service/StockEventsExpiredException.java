@@ -0,0 +1,9 @@
+package com.productcatalog.service;
+
+public class StockEventsExpiredException extends RuntimeException {
+    
+    public StockEventsExpiredException(long after, long oldestRetained, long latest) {
+        super("Stock events after " + after + " are not available (buffer holds " + oldestRetained + " to " + latest
+                + "); reload current levels from /stock-watches/{id}/products, then poll again without after");
+    }
+}
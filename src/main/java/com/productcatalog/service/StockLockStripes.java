@@ -0,0 +1,77 @@
+package com.productcatalog.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-process locks for stock changes. Concurrent decrements of the same product
+ * queue here instead of piling up on the database row lock, and each holder keeps the
+ * stripe until its transaction has committed.
+ */
+@Component
+public class StockLockStripes {
+    
+    private final ReentrantLock[] stripes;
+    private final long timeoutNanos;
+    
+    public StockLockStripes(@Value("${catalog.stock.lock-stripes:64}") int stripeCount,
+                            @Value("${catalog.stock.lock-timeout:2s}") Duration timeout) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutNanos = timeout.toNanos();
+    }
+    
+    public <T> T withLock(Long productId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeOf(productId)];
+        acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Stripes are taken in ascending order so overlapping batches cannot deadlock
+    public <T> T withLocks(Collection<Long> productIds, Supplier<T> action) {
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        productIds.forEach(id -> stripeIndexes.add(stripeOf(id)));
+        
+        int acquired = 0;
+        Integer[] ordered = stripeIndexes.toArray(new Integer[0]);
+        try {
+            for (Integer index : ordered) {
+                acquire(stripes[index]);
+                acquired++;
+            }
+            return action.get();
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[ordered[i]].unlock();
+            }
+        }
+    }
+    
+    private int stripeOf(Long productId) {
+        return Math.floorMod(Long.hashCode(productId) * 0x9E3779B9, stripes.length);
+    }
+    
+    private void acquire(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new StockLockTimeoutException("Timed out waiting for stock lock, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StockLockTimeoutException("Interrupted while waiting for stock lock", e);
+        }
+    }
+}
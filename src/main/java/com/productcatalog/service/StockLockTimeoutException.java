@@ -0,0 +1,13 @@
+package com.productcatalog.service;
+
+/** A stock change could not get its product's lock stripe in time; the request can be retried. */
+public class StockLockTimeoutException extends RuntimeException {
+    
+    public StockLockTimeoutException(String message) {
+        super(message);
+    }
+    
+    public StockLockTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,349 @@
+package com.productcatalog.service;
+
+import com.productcatalog.dto.StockCrossingDirection;
+import com.productcatalog.dto.StockCrossingEvent;
+import com.productcatalog.dto.StockCrossingFeed;
+import com.productcatalog.dto.StockWatch;
+import com.productcatalog.search.ProductStockIndex.StockChange;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Stock threshold watches per category or SKU, and the crossing events they produce when
+ * committed stock changes move a product past a threshold. Events are numbered and kept in a
+ * bounded in-memory buffer, so a long-poll or SSE client resumes from the last sequence it saw.
+ * Delivery runs on its own thread; a slow stream never holds up the write that caused the event.
+ */
+@Component
+public class StockWatchRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(StockWatchRegistry.class);
+
+    private static final int MAX_WATCHES = 10_000;
+
+    private static final int MAX_POLL_EVENTS = 1000;
+
+    private static final String EVENT_NAME = "stock-crossing";
+
+    // All guarded by this
+    private final Map<Long, StockWatch> watches = new HashMap<>();
+    private final Map<String, List<StockWatch>> watchesByCategory = new HashMap<>();
+    private final Map<String, List<StockWatch>> watchesBySku = new HashMap<>();
+    private final ArrayDeque<StockCrossingEvent> events = new ArrayDeque<>();
+    private final List<PendingPoll> pendingPolls = new ArrayList<>();
+    private long lastWatchId;
+    private long lastSequence;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService delivery = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("stock-watch-delivery").daemon().factory());
+
+    private final int bufferSize;
+    private final Duration maxPollTimeout;
+    private final Duration streamTimeout;
+
+    public StockWatchRegistry(@Value("${catalog.stock-watch.buffer-size:10000}") int bufferSize,
+                              @Value("${catalog.stock-watch.max-poll-timeout:30s}") Duration maxPollTimeout,
+                              @Value("${catalog.stock-watch.stream-timeout:30m}") Duration streamTimeout) {
+        this.bufferSize = bufferSize;
+        this.maxPollTimeout = maxPollTimeout;
+        this.streamTimeout = streamTimeout;
+    }
+
+    public synchronized StockWatch register(StockWatch request) {
+        boolean hasCategory = request.getCategory() != null && !request.getCategory().isBlank();
+        boolean hasSku = request.getSku() != null && !request.getSku().isBlank();
+        if (hasCategory == hasSku) {
+            throw new IllegalArgumentException("A stock watch needs exactly one of category or sku");
+        }
+        if (request.getThreshold() == null || request.getThreshold() < 0) {
+            throw new IllegalArgumentException("A stock watch needs a threshold of 0 or more");
+        }
+        if (watches.size() >= MAX_WATCHES) {
+            throw new IllegalArgumentException("At most " + MAX_WATCHES + " stock watches can be registered");
+        }
+        StockWatch watch = new StockWatch(++lastWatchId, hasCategory ? request.getCategory() : null,
+                hasSku ? request.getSku() : null, request.getThreshold(), LocalDateTime.now());
+        watches.put(watch.getId(), watch);
+        if (hasCategory) {
+            watchesByCategory.computeIfAbsent(watch.getCategory(), k -> new ArrayList<>()).add(watch);
+        } else {
+            watchesBySku.computeIfAbsent(watch.getSku(), k -> new ArrayList<>()).add(watch);
+        }
+        return watch;
+    }
+
+    public synchronized boolean remove(Long id) {
+        StockWatch watch = watches.remove(id);
+        if (watch == null) {
+            return false;
+        }
+        Map<String, List<StockWatch>> byKey = watch.getSku() != null ? watchesBySku : watchesByCategory;
+        String key = watch.getSku() != null ? watch.getSku() : watch.getCategory();
+        List<StockWatch> sameKey = byKey.get(key);
+        sameKey.remove(watch);
+        if (sameKey.isEmpty()) {
+            byKey.remove(key);
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (id.equals(subscriber.watchId)) {
+                subscriber.emitter.complete();
+            }
+        }
+        return true;
+    }
+
+    public synchronized Optional<StockWatch> get(Long id) {
+        return Optional.ofNullable(watches.get(id));
+    }
+
+    public synchronized List<StockWatch> list() {
+        List<StockWatch> all = new ArrayList<>(watches.values());
+        all.sort(Comparator.comparing(StockWatch::getId));
+        return all;
+    }
+
+    /** Turns committed stock changes into crossing events for every watch they pass. */
+    public void publish(List<StockChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<StockCrossingEvent> crossings = new ArrayList<>();
+        Map<PendingPoll, StockCrossingFeed> completed = new HashMap<>();
+        synchronized (this) {
+            if (watches.isEmpty()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (StockChange change : changes) {
+                appendCrossings(watchesByCategory.get(change.category()), change, now, crossings);
+                appendCrossings(watchesBySku.get(change.sku()), change, now, crossings);
+            }
+            if (crossings.isEmpty()) {
+                return;
+            }
+            for (PendingPoll poll : pendingPolls) {
+                StockCrossingFeed feed = select(crossings, poll.after, poll.watchId, poll.limit);
+                if (!feed.getEvents().isEmpty()) {
+                    completed.put(poll, feed);
+                }
+            }
+            pendingPolls.removeAll(completed.keySet());
+        }
+        try {
+            delivery.execute(() -> deliver(crossings, completed));
+        } catch (RejectedExecutionException e) {
+            log.debug("Stock watch delivery is shut down, dropping {} events", crossings.size());
+        }
+    }
+
+    /**
+     * Events after the given sequence, completing as soon as one is available or after the
+     * timeout with an empty list. Without after, waits for events newer than the latest one.
+     * The feed is passed through toResponse to build the async result.
+     */
+    public <T> DeferredResult<T> poll(Long after, Long watchId, int limit, Duration timeout,
+                                      Function<StockCrossingFeed, T> toResponse) {
+        if (limit <= 0 || limit > MAX_POLL_EVENTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_POLL_EVENTS);
+        }
+        requireWatch(watchId);
+        Duration wait = timeout.isNegative() || timeout.compareTo(maxPollTimeout) > 0 ? maxPollTimeout : timeout;
+        DeferredResult<T> result = new DeferredResult<>(wait.toMillis());
+        synchronized (this) {
+            long cursor = after != null ? after : lastSequence;
+            requireRetained(cursor);
+            StockCrossingFeed feed = select(events, cursor, watchId, limit);
+            if (!feed.getEvents().isEmpty() || wait.isZero()) {
+                result.setResult(toResponse.apply(feed));
+                return result;
+            }
+            PendingPoll poll = new PendingPoll(cursor, watchId, limit, ready -> result.setResult(toResponse.apply(ready)));
+            pendingPolls.add(poll);
+            // Re-reads the buffer, so events that raced the timeout are still returned
+            result.onTimeout(() -> {
+                synchronized (this) {
+                    result.setResult(toResponse.apply(select(events, cursor, watchId, limit)));
+                }
+            });
+            result.onCompletion(() -> {
+                synchronized (this) {
+                    pendingPolls.remove(poll);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Opens an SSE stream of crossing events, optionally for one watch. Each event carries its
+     * sequence as the SSE id, so a reconnecting client that sends Last-Event-ID gets the events
+     * it missed replayed first.
+     */
+    public SseEmitter subscribe(Long watchId, Long lastEventId) {
+        requireWatch(watchId);
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(watchId, emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        synchronized (this) {
+            List<StockCrossingEvent> missed = List.of();
+            if (lastEventId != null) {
+                requireRetained(lastEventId);
+                missed = select(events, lastEventId, watchId, Integer.MAX_VALUE).getEvents();
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("subscribed"));
+                for (StockCrossingEvent event : missed) {
+                    emitter.send(toSse(event));
+                }
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+                return emitter;
+            }
+            subscriber.lastSent = lastSequence;
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        delivery.shutdown();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void appendCrossings(List<StockWatch> candidates, StockChange change, LocalDateTime now,
+                                 List<StockCrossingEvent> crossings) {
+        if (candidates == null) {
+            return;
+        }
+        for (StockWatch watch : candidates) {
+            StockCrossingDirection direction = crossing(watch.getThreshold(), change);
+            if (direction == null) {
+                continue;
+            }
+            StockCrossingEvent event = new StockCrossingEvent(++lastSequence, watch.getId(), change.productId(),
+                    change.sku(), change.category(), watch.getThreshold(), change.previousStock(),
+                    change.currentStock(), direction, now);
+            events.addLast(event);
+            if (events.size() > bufferSize) {
+                events.removeFirst();
+            }
+            crossings.add(event);
+        }
+    }
+
+    static StockCrossingDirection crossing(int threshold, StockChange change) {
+        boolean wasLow = change.previousStock() != null && change.previousStock() <= threshold;
+        boolean isLow = change.currentStock() <= threshold;
+        if (isLow && !wasLow) {
+            return StockCrossingDirection.LOW;
+        }
+        if (wasLow && !isLow) {
+            return StockCrossingDirection.RECOVERED;
+        }
+        return null;
+    }
+
+    // Callers hold the lock; nextCursor skips past non-matching events unless the limit cut the scan short
+    private StockCrossingFeed select(Iterable<StockCrossingEvent> source, long after, Long watchId, int limit) {
+        List<StockCrossingEvent> selected = new ArrayList<>();
+        for (StockCrossingEvent event : source) {
+            if (event.getSequence() <= after || (watchId != null && !watchId.equals(event.getWatchId()))) {
+                continue;
+            }
+            selected.add(event);
+            if (selected.size() == limit) {
+                return new StockCrossingFeed(selected, event.getSequence());
+            }
+        }
+        return new StockCrossingFeed(selected, Math.max(after, lastSequence));
+    }
+
+    private void requireRetained(long cursor) {
+        long oldest = events.isEmpty() ? lastSequence + 1 : events.getFirst().getSequence();
+        if (cursor > lastSequence || cursor < oldest - 1) {
+            throw new StockEventsExpiredException(cursor, oldest, lastSequence);
+        }
+    }
+
+    private synchronized void requireWatch(Long watchId) {
+        if (watchId != null && !watches.containsKey(watchId)) {
+            throw new IllegalArgumentException("Stock watch not found with id: " + watchId);
+        }
+    }
+
+    private void deliver(List<StockCrossingEvent> crossings, Map<PendingPoll, StockCrossingFeed> completed) {
+        completed.forEach((poll, feed) -> poll.complete.accept(feed));
+        for (Subscriber subscriber : subscribers) {
+            try {
+                for (StockCrossingEvent event : crossings) {
+                    if (event.getSequence() <= subscriber.lastSent) {
+                        continue;
+                    }
+                    if (subscriber.watchId == null || subscriber.watchId.equals(event.getWatchId())) {
+                        subscriber.emitter.send(toSse(event));
+                    }
+                    subscriber.lastSent = event.getSequence();
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(StockCrossingEvent event) {
+        return SseEmitter.event().id(String.valueOf(event.getSequence())).name(EVENT_NAME).data(event);
+    }
+
+    private static final class PendingPoll {
+        private final long after;
+        private final Long watchId;
+        private final int limit;
+        private final Consumer<StockCrossingFeed> complete;
+
+        private PendingPoll(long after, Long watchId, int limit, Consumer<StockCrossingFeed> complete) {
+            this.after = after;
+            this.watchId = watchId;
+            this.limit = limit;
+            this.complete = complete;
+        }
+    }
+
+    private static final class Subscriber {
+        private final Long watchId;
+        private final SseEmitter emitter;
+        // Written by the subscribing thread before the subscriber is visible, then only by the delivery thread
+        private volatile long lastSent;
+
+        private Subscriber(Long watchId, SseEmitter emitter) {
+            this.watchId = watchId;
+            this.emitter = emitter;
+        }
+    }
+}
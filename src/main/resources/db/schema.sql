@@ -0,0 +1,42 @@
+-- Schema for the persistent profile, where Hibernate validates instead of generating DDL.
+-- Mirrors the entity mappings; every statement is idempotent so it runs on each startup.
+
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS product_changes_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS products (
+    id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    price NUMERIC(10,2) NOT NULL,
+    stock_quantity INTEGER NOT NULL CHECK (stock_quantity >= 0),
+    category VARCHAR(50) NOT NULL,
+    brand VARCHAR(100),
+    sku VARCHAR(50) UNIQUE,
+    is_active BOOLEAN,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Databases created before the timestamps became keyset sort keys allowed NULLs; backfill and tighten them.
+UPDATE products SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP(6)) WHERE created_at IS NULL;
+UPDATE products SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE products ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE products ALTER COLUMN updated_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_products_category_active_price ON products (category, is_active, price);
+CREATE INDEX IF NOT EXISTS idx_products_brand_active_price ON products (brand, is_active, price);
+CREATE INDEX IF NOT EXISTS idx_products_price ON products (price);
+CREATE INDEX IF NOT EXISTS idx_products_stock_quantity ON products (stock_quantity);
+
+CREATE TABLE IF NOT EXISTS product_changes (
+    id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    type ENUM ('CREATED', 'DELETED', 'UPDATED') NOT NULL,
+    changed_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_changes_changed_at ON product_changes (changed_at);
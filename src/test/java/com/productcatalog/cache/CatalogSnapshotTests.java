@@ -0,0 +1,138 @@
+package com.productcatalog.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.productcatalog.entity.Product;
+
+class CatalogSnapshotTests {
+
+	private CatalogSnapshot snapshot;
+
+	@BeforeEach
+	void setUp() {
+		snapshot = new CatalogSnapshot(true);
+		snapshot.rebuild(List.of(
+				product(1L, "A1", "19.99", "Books", true),
+				product(2L, "A2", "5.00", "Books", false),
+				product(3L, "A3", "49.50", "Games", true)));
+	}
+
+	@Test
+	void readsRowsByIdSkuAndFilter() {
+		assertThat(snapshot.isReady()).isTrue();
+		assertThat(snapshot.findById(2L).getPrice()).isEqualByComparingTo("5.00");
+		assertThat(snapshot.findBySku("A3").getId()).isEqualTo(3L);
+		assertThat(snapshot.findByCategory("Books")).extracting(Product::getId).containsExactly(1L, 2L);
+		assertThat(snapshot.findActive()).extracting(Product::getId).containsExactly(1L, 3L);
+		assertThat(snapshot.findAllById(new long[] { 3L, 9L, 1L })).extracting(Product::getId).containsExactly(3L, 1L);
+	}
+
+	@Test
+	void upsertPublishesNewVersionAndMovesSku() {
+		long version = snapshot.version();
+		snapshot.upsertAll(List.of(product(2L, "B2", "7.25", "Games", true), product(4L, "A4", "1.00", "Toys", true)));
+
+		assertThat(snapshot.version()).isGreaterThan(version);
+		assertThat(snapshot.size()).isEqualTo(4);
+		assertThat(snapshot.findBySku("A2")).isNull();
+		assertThat(snapshot.findBySku("B2").getPrice()).isEqualByComparingTo("7.25");
+		assertThat(snapshot.findAll()).extracting(Product::getId).containsExactly(1L, 2L, 3L, 4L);
+	}
+
+	@Test
+	void removeDropsRowAndSku() {
+		snapshot.remove(1L);
+
+		assertThat(snapshot.findById(1L)).isNull();
+		assertThat(snapshot.findBySku("A1")).isNull();
+		assertThat(snapshot.size()).isEqualTo(2);
+	}
+
+	@Test
+	void upsertOlderThanStoredRowIsIgnored() {
+		Product newer = product(2L, "A2", "9.00", "Books", true);
+		newer.setVersion(2L);
+		Product older = product(2L, "A2", "6.00", "Books", true);
+		older.setVersion(1L);
+
+		// After-commit callbacks for the two writes run in the opposite order
+		snapshot.upsertAll(List.of(newer));
+		snapshot.upsertAll(List.of(older));
+
+		assertThat(snapshot.findById(2L).getPrice()).isEqualByComparingTo("9.00");
+		assertThat(snapshot.findById(2L).getVersion()).isEqualTo(2L);
+	}
+
+	@Test
+	void upsertArrivingAfterRemoveDoesNotBringRowBack() {
+		snapshot.remove(3L);
+		snapshot.upsertAll(List.of(product(3L, "A3", "1.00", "Games", true)));
+
+		assertThat(snapshot.findById(3L)).isNull();
+		assertThat(snapshot.findBySku("A3")).isNull();
+		assertThat(snapshot.size()).isEqualTo(2);
+	}
+
+	@Test
+	void readersGetTheirOwnCopies() {
+		Product first = snapshot.findById(1L);
+		first.setPrice(new BigDecimal("0.01"));
+		first.setStockQuantity(-1);
+
+		assertThat(snapshot.findById(1L)).isNotSameAs(first);
+		assertThat(snapshot.findById(1L).getPrice()).isEqualByComparingTo("19.99");
+		assertThat(snapshot.findBySku("A1").getPrice()).isEqualByComparingTo("19.99");
+		assertThat(snapshot.findAll().get(0).getStockQuantity()).isEqualTo(10);
+
+		// Rows copied into a rewritten segment keep their values; the rewritten row gets the new ones
+		snapshot.upsertAll(List.of(product(2L, "A2", "8.00", "Books", false)));
+		assertThat(snapshot.findById(1L).getPrice()).isEqualByComparingTo("19.99");
+		assertThat(snapshot.findById(2L).getPrice()).isEqualByComparingTo("8.00");
+	}
+
+	@Test
+	void segmentsSplitAndStayOrderedAcrossIncrementalWrites() {
+		List<Product> products = new ArrayList<>();
+		for (long id = 1; id <= 5000; id += 2) {
+			products.add(product(id, "S" + id, "1.00", "Bulk", true));
+		}
+		snapshot.rebuild(products);
+		List<Product> inserts = new ArrayList<>();
+		for (long id = 2; id <= 5000; id += 2) {
+			inserts.add(product(id, "S" + id, "2.00", "Bulk", true));
+		}
+		snapshot.upsertAll(inserts);
+		snapshot.remove(2500L);
+
+		List<Product> all = snapshot.findAll();
+		assertThat(all).hasSize(4999);
+		assertThat(snapshot.size()).isEqualTo(4999);
+		assertThat(all).extracting(Product::getId).isSorted();
+		assertThat(snapshot.findBySku("S4000").getPrice()).isEqualByComparingTo("2.00");
+	}
+
+	@Test
+	void disabledSnapshotIgnoresWrites() {
+		CatalogSnapshot disabled = new CatalogSnapshot(false);
+		disabled.rebuild(List.of(product(1L, "A1", "1.00", "Books", true)));
+
+		assertThat(disabled.isReady()).isFalse();
+		assertThat(disabled.size()).isZero();
+	}
+
+	private static Product product(Long id, String sku, String price, String category, boolean active) {
+		Product product = new Product("Product " + id, null, new BigDecimal(price), 10, category, "Brand", sku);
+		product.setId(id);
+		product.setIsActive(active);
+		product.setVersion(0L);
+		return product;
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.productcatalog.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.productcatalog.entity.Product;
+
+class ProductCacheTests {
+
+	private ProductCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new ProductCache(2, Duration.ofMinutes(1));
+	}
+
+	@Test
+	void servesCopiesByIdAndSku() {
+		cache.put(product(1L, "SKU-1", "Boot"), cache.generation());
+
+		Product byId = cache.getById(1L);
+		byId.setName("Changed");
+
+		assertThat(cache.getById(1L).getName()).isEqualTo("Boot");
+		assertThat(cache.getBySku("SKU-1").getId()).isEqualTo(1L);
+		assertThat(cache.stats().hits()).isEqualTo(3);
+	}
+
+	@Test
+	void readStartedBeforeEvictionIsNotStored() {
+		long loadedAt = cache.generation();
+		// A write commits and evicts after the reader loaded the old row, before it stores it
+		cache.evict(1L);
+		cache.put(product(1L, "SKU-1", "Old"), loadedAt);
+
+		assertThat(cache.getById(1L)).isNull();
+		assertThat(cache.getBySku("SKU-1")).isNull();
+
+		cache.put(product(1L, "SKU-1", "New"), cache.generation());
+		assertThat(cache.getById(1L).getName()).isEqualTo("New");
+	}
+
+	@Test
+	void evictingSkuBlocksReadsOfThatSku() {
+		long loadedAt = cache.generation();
+		cache.evictSku("SKU-2");
+
+		cache.put(product(2L, "SKU-2", "Old"), loadedAt);
+		cache.put(product(3L, "SKU-3", "Other"), loadedAt);
+
+		assertThat(cache.getBySku("SKU-2")).isNull();
+		assertThat(cache.getBySku("SKU-3")).isNotNull();
+	}
+
+	@Test
+	void clearBlocksEveryEarlierRead() {
+		long loadedAt = cache.generation();
+		cache.clear();
+
+		cache.put(product(4L, "SKU-4", "Old"), loadedAt);
+
+		assertThat(cache.getById(4L)).isNull();
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsDroppedWhenFull() {
+		cache.put(product(1L, "SKU-1", "One"), cache.generation());
+		cache.put(product(2L, "SKU-2", "Two"), cache.generation());
+		cache.getById(1L);
+		cache.put(product(3L, "SKU-3", "Three"), cache.generation());
+
+		assertThat(cache.getById(2L)).isNull();
+		assertThat(cache.getBySku("SKU-2")).isNull();
+		assertThat(cache.getById(1L)).isNotNull();
+		assertThat(cache.getById(3L)).isNotNull();
+	}
+
+	private static Product product(Long id, String sku, String name) {
+		Product product = new Product(name, null, new BigDecimal("1.00"), 10, "Footwear", "Acme", sku);
+		product.setId(id);
+		return product;
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.productcatalog.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.productcatalog.cache.ResponseCache.Key;
+import com.productcatalog.cache.ResponseCache.Scope;
+import com.productcatalog.entity.Product;
+
+class ResponseCacheTests {
+
+	private static final Key BOOKS = new Key(Scope.CATEGORY, "Books");
+	private static final Key GAMES = new Key(Scope.CATEGORY, "Games");
+	private static final Key ACTIVE = new Key(Scope.ACTIVE, "");
+	private static final Key FIRST_PAGE = new Key(Scope.PAGE, "0:10:id: ASC");
+
+	private ResponseCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new ResponseCache(8);
+		store(BOOKS, product(1L, "Books", true), product(2L, "Books", false));
+		store(GAMES, product(3L, "Games", true));
+		store(ACTIVE, product(1L, "Books", true), product(3L, "Games", true));
+		store(FIRST_PAGE, product(1L, "Books", true), product(2L, "Books", false));
+	}
+
+	@Test
+	void storesPlainAndCompressedBody() throws IOException {
+		ResponseCache.Entry entry = cache.get(BOOKS);
+
+		assertThat(new String(entry.body(), StandardCharsets.UTF_8)).isEqualTo("Books");
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(entry.gzipped()))) {
+			assertThat(in.readAllBytes()).isEqualTo(entry.body());
+		}
+		assertThat(entry.eTag()).isEqualTo("\"Books\"");
+	}
+
+	@Test
+	void writeDropsOnlyAffectedEntries() {
+		cache.invalidate(List.of(product(2L, "Books", false)));
+
+		assertThat(cache.get(BOOKS)).isNull();
+		assertThat(cache.get(FIRST_PAGE)).isNull();
+		assertThat(cache.get(GAMES)).isNotNull();
+		assertThat(cache.get(ACTIVE)).isNotNull();
+	}
+
+	@Test
+	void productLeavingCategoryOrActiveSetDropsThoseLists() {
+		cache.invalidate(List.of(product(3L, "Books", false)));
+
+		assertThat(cache.get(GAMES)).isNull();
+		assertThat(cache.get(BOOKS)).isNull();
+		assertThat(cache.get(ACTIVE)).isNull();
+
+		store(GAMES, product(4L, "Games", true));
+		cache.invalidate(5L);
+		assertThat(cache.get(GAMES)).isNotNull();
+		cache.invalidate(4L);
+		assertThat(cache.get(GAMES)).isNull();
+	}
+
+	@Test
+	void responseLoadedBeforeWriteIsNotStored() {
+		long loadedAt = cache.generation();
+		cache.invalidate(List.of(product(9L, "Toys", false)));
+
+		ResponseCache.Entry entry = cache.put(new Key(Scope.CATEGORY, "Toys"), new byte[] { 1 }, null, List.of(), loadedAt);
+
+		assertThat(entry.body()).containsExactly(1);
+		assertThat(cache.get(new Key(Scope.CATEGORY, "Toys"))).isNull();
+	}
+
+	private void store(Key key, Product... products) {
+		byte[] body = key.value().getBytes(StandardCharsets.UTF_8);
+		cache.put(key, body, "\"" + key.value() + "\"", List.of(products), cache.generation());
+	}
+
+	private static Product product(Long id, String category, boolean active) {
+		Product product = new Product("Product " + id, null, new BigDecimal("1.00"), 10, category, "Brand", "S" + id);
+		product.setId(id);
+		product.setIsActive(active);
+		return product;
+	}
+
+}
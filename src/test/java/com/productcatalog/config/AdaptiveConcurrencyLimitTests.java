@@ -0,0 +1,87 @@
+package com.productcatalog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTests {
+
+	private static final long BASELINE = TimeUnit.MILLISECONDS.toNanos(10);
+
+	@Test
+	void rejectsOnceEverySlotIsTaken() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+
+		assertThat(limit.tryAcquire()).isTrue();
+		assertThat(limit.tryAcquire()).isTrue();
+		assertThat(limit.isSaturated()).isTrue();
+		assertThat(limit.tryAcquire()).isFalse();
+
+		limit.release(BASELINE, false);
+		assertThat(limit.getInFlight()).isEqualTo(1);
+		assertThat(limit.tryAcquire()).isTrue();
+	}
+
+	@Test
+	void growsWhileLatencyStaysAtBaseline() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 50);
+
+		for (int i = 0; i < 200; i++) {
+			runAtFullLoad(limit, BASELINE);
+		}
+
+		assertThat(limit.getLimit()).isEqualTo(50);
+	}
+
+	@Test
+	void shrinksWhenRequestsQueue() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 2, 50);
+		runAtFullLoad(limit, BASELINE);
+
+		// Fewer samples than the baseline probe interval, which would accept 4x as the new normal
+		for (int i = 0; i < 20; i++) {
+			runAtFullLoad(limit, BASELINE * 4);
+		}
+
+		assertThat(limit.getLimit()).isBetween(2, 10);
+	}
+
+	@Test
+	void failuresShrinkTheLimit() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 50);
+		runAtFullLoad(limit, BASELINE);
+
+		for (int i = 0; i < 200; i++) {
+			limit.tryAcquire();
+			limit.release(BASELINE, true);
+		}
+
+		assertThat(limit.getLimit()).isEqualTo(5);
+	}
+
+	@Test
+	void lightTrafficLeavesTheLimitAlone() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 50);
+
+		for (int i = 0; i < 200; i++) {
+			limit.tryAcquire();
+			limit.release(BASELINE * (i % 2 == 0 ? 1 : 10), false);
+		}
+
+		assertThat(limit.getLimit()).isEqualTo(20);
+	}
+
+	// Fills every slot, then completes them all with the given latency
+	private static void runAtFullLoad(AdaptiveConcurrencyLimit limit, long rttNanos) {
+		int acquired = 0;
+		while (limit.tryAcquire()) {
+			acquired++;
+		}
+		for (int i = 0; i < acquired; i++) {
+			limit.release(rttNanos, false);
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.productcatalog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productcatalog.config.AdmissionControlFilter.EndpointClass;
+
+import jakarta.servlet.ServletException;
+
+class AdmissionControlFilterTests {
+
+	private AdmissionControlFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		filter = new AdmissionControlFilter(2, 1, 10, Duration.ofSeconds(2), new ObjectMapper());
+	}
+
+	@Test
+	void classifiesEndpoints() {
+		assertThat(AdmissionControlFilter.classify("GET", "/api/products/42")).isEqualTo(EndpointClass.DETAIL);
+		assertThat(AdmissionControlFilter.classify("GET", "/api/products/sku/SKU-1")).isEqualTo(EndpointClass.DETAIL);
+		assertThat(AdmissionControlFilter.classify("POST", "/api/products/batch")).isEqualTo(EndpointClass.DETAIL);
+		assertThat(AdmissionControlFilter.classify("POST", "/api/products")).isEqualTo(EndpointClass.WRITE);
+		assertThat(AdmissionControlFilter.classify("PATCH", "/api/products/42/stock")).isEqualTo(EndpointClass.WRITE);
+		assertThat(AdmissionControlFilter.classify("GET", "/api/products/category/Books")).isEqualTo(EndpointClass.LIST);
+		assertThat(AdmissionControlFilter.classify("GET", "/api/products/page")).isEqualTo(EndpointClass.LIST);
+		assertThat(AdmissionControlFilter.classify("GET", "/api/products")).isEqualTo(EndpointClass.EXPENSIVE);
+		assertThat(AdmissionControlFilter.classify("GET", "/api/products/search")).isEqualTo(EndpointClass.EXPENSIVE);
+		assertThat(AdmissionControlFilter.classify("POST", "/api/products/bulk")).isEqualTo(EndpointClass.EXPENSIVE);
+		assertThat(AdmissionControlFilter.classify("GET", "/api/products/stock-watches/events")).isNull();
+		assertThat(AdmissionControlFilter.classify("GET", "/actuator/health")).isNull();
+	}
+
+	@Test
+	void requestOverClassLimitGets429() throws ServletException, IOException {
+		fill(EndpointClass.LIST);
+
+		MockHttpServletResponse response = send("GET", "/api/products/active");
+
+		assertThat(response.getStatus()).isEqualTo(429);
+		assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+		assertThat(response.getContentAsString()).contains("\"success\":false");
+		assertThat(filter.rejected(EndpointClass.LIST)).isEqualTo(1);
+	}
+
+	@Test
+	void expensiveRequestsAreShedWhileCriticalClassIsSaturated() throws ServletException, IOException {
+		fill(EndpointClass.DETAIL);
+
+		assertThat(send("GET", "/api/products/search").getStatus()).isEqualTo(503);
+		assertThat(send("GET", "/api/products/page").getStatus()).isEqualTo(503);
+		assertThat(send("POST", "/api/products").getStatus()).isEqualTo(200);
+		assertThat(filter.shed(EndpointClass.EXPENSIVE)).isEqualTo(1);
+		assertThat(filter.shed(EndpointClass.LIST)).isEqualTo(1);
+	}
+
+	@Test
+	void completedRequestReleasesItsSlot() throws ServletException, IOException {
+		for (int i = 0; i < 5; i++) {
+			assertThat(send("GET", "/api/products/7").getStatus()).isEqualTo(200);
+		}
+
+		assertThat(filter.limit(EndpointClass.DETAIL).getInFlight()).isZero();
+	}
+
+	private void fill(EndpointClass endpointClass) {
+		AdaptiveConcurrencyLimit limit = filter.limit(endpointClass);
+		while (limit.tryAcquire()) {
+		}
+	}
+
+	private MockHttpServletResponse send(String method, String uri) throws ServletException, IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.productcatalog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.productcatalog.cache.ProductCache;
+import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductRepository;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = { "catalog.warmup.enabled=true", "catalog.warmup.iterations=2" })
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CatalogWarmupTests {
+
+	// Readiness as seen by every request that reached the server, starting with the warm-up replay
+	static final List<ReadinessState> readinessPerRequest = new CopyOnWriteArrayList<>();
+
+	@Autowired
+	private CatalogWarmup warmup;
+
+	@Autowired
+	private ApplicationAvailability availability;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductCache productCache;
+
+	@Autowired
+	private ConfigurableApplicationContext context;
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllInBatch();
+	}
+
+	// Runs first, before any later warm-up call replays requests against the ready application
+	@Test
+	@Order(1)
+	void hotEndpointsAreReplayedBeforeReadiness() {
+		assertThat(readinessPerRequest).isNotEmpty().containsOnly(ReadinessState.REFUSING_TRAFFIC);
+		assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+	}
+
+	@Test
+	@Order(2)
+	void recentlyUpdatedProductsArePreloadedIntoTheCache() {
+		Product product = productRepository.saveAndFlush(new Product("Chair", "Office chair", new BigDecimal("89.00"), 6,
+				"Office", "Acme", "WU-1"));
+		productCache.clear();
+
+		warmup.warmUp(new ApplicationReadyEvent(new SpringApplication(), new String[0], context, Duration.ZERO));
+
+		assertThat(productCache.getById(product.getId())).isNotNull();
+		assertThat(productCache.getBySku("WU-1")).isNotNull();
+	}
+
+	@TestConfiguration
+	static class ReadinessRecorder {
+
+		@Bean
+		OncePerRequestFilter readinessRecordingFilter(ApplicationAvailability availability) {
+			return new OncePerRequestFilter() {
+				@Override
+				protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+						throws ServletException, IOException {
+					readinessPerRequest.add(availability.getReadinessState());
+					chain.doFilter(request, response);
+				}
+			};
+		}
+	}
+}
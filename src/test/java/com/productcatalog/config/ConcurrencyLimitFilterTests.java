@@ -0,0 +1,46 @@
+package com.productcatalog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.ServletException;
+
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+class ConcurrencyLimitFilterTests {
+
+	@Autowired
+	private FilterRegistrationBean<ConcurrencyLimitFilter> registration;
+
+	@Test
+	void limitDefaultsToConnectionPoolSize() {
+		assertThat(registration.getFilter().availablePermits()).isEqualTo(20);
+	}
+
+	@Test
+	void requestOverLimitGets503WithRetryAfter() throws ServletException, IOException {
+		ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(10), new ObjectMapper());
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+		// The second request arrives while the first still holds the only slot
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/products/1"), new MockHttpServletResponse(),
+				(request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/api/products/2"), rejected,
+						new MockFilterChain()));
+
+		assertThat(rejected.getStatus()).isEqualTo(503);
+		assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+		assertThat(rejected.getContentAsString()).contains("\"success\":false");
+		assertThat(filter.availablePermits()).isEqualTo(1);
+	}
+}
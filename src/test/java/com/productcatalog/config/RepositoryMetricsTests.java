@@ -0,0 +1,87 @@
+package com.productcatalog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.productcatalog.dto.ProductDTO;
+import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductRepository;
+import com.productcatalog.service.ProductService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RepositoryMetricsTests {
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void repositoryCallsRecordLatencyAndRowCount() {
+		long before = count("findBySku", "success");
+
+		productRepository.findBySku("RM-404");
+
+		assertThat(count("findBySku", "success")).isEqualTo(before + 1);
+		Timer timer = meterRegistry.get("catalog.repository.query").tag("method", "findBySku").tag("outcome", "success").timer();
+		assertThat(timer.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+		DistributionSummary rows = meterRegistry.get("catalog.repository.rows").tag("method", "findBySku").summary();
+		assertThat(rows.count()).isPositive();
+	}
+
+	@Test
+	void cacheCountersFollowTheProductCache() {
+		Product product = productService.createProduct(new ProductDTO("Lamp", "Desk lamp", new BigDecimal("20.00"), 3,
+				"Home", "Acme", "RM-1"));
+		FunctionCounter hits = meterRegistry.get("catalog.cache.hits").functionCounter();
+		double before = hits.count();
+
+		productService.getProductById(product.getId());
+		productService.getProductById(product.getId());
+
+		assertThat(hits.count()).isGreaterThan(before);
+		productService.deleteProduct(product.getId());
+	}
+
+	@Test
+	void loggersEndpointIsNotExposedByDefault() throws Exception {
+		// Unmapped, so the request falls through to the API's error handling instead of the endpoint
+		int loggers = mockMvc.perform(get("/actuator/loggers")).andReturn().getResponse().getStatus();
+		assertThat(loggers).isNotEqualTo(200);
+		mockMvc.perform(get("/actuator/metrics/catalog.repository.query")).andExpect(status().isOk());
+	}
+
+	private long count(String method, String outcome) {
+		Timer timer = meterRegistry.find("catalog.repository.query").tag("method", method).tag("outcome", outcome).timer();
+		return timer != null ? timer.count() : 0;
+	}
+}
@@ -0,0 +1,117 @@
+package com.productcatalog.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.productcatalog.config.BinaryFormatConfig;
+import com.productcatalog.dto.ApiResponse;
+import com.productcatalog.dto.ProductDTO;
+import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BinaryFormatNegotiationTests {
+
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private Jackson2ObjectMapperBuilder mapperBuilder;
+
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		product = productRepository.saveAndFlush(new Product("Pen", "Fountain pen", new BigDecimal("19.90"), 12,
+				"Stationery", "Acme", "BIN-1"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void cborAndSmileAreServedOnRequestWithExactPrices() throws Exception {
+		Product stored = productRepository.findById(product.getId()).orElseThrow();
+		for (MediaType type : List.of(MediaType.APPLICATION_CBOR, SMILE)) {
+			byte[] body = mockMvc.perform(get("/api/products/{id}", product.getId()).accept(type))
+					.andExpect(status().isOk())
+					.andExpect(content().contentTypeCompatibleWith(type))
+					.andReturn().getResponse().getContentAsByteArray();
+
+			ApiResponse<Product> response = mapperFor(type).readValue(body, new TypeReference<ApiResponse<Product>>() { });
+			assertThat(response.isSuccess()).isTrue();
+			assertThat(response.getData().getSku()).isEqualTo("BIN-1");
+			assertThat(response.getData().getPrice()).isEqualTo(new BigDecimal("19.90"));
+			assertThat(response.getData().getCreatedAt()).isEqualTo(stored.getCreatedAt());
+		}
+	}
+
+	@Test
+	void cachedListsHonourBinaryAcceptHeaders() throws Exception {
+		byte[] body = mockMvc.perform(get("/api/products/active").accept(SMILE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(SMILE))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		ApiResponse<List<Product>> response = mapperFor(SMILE).readValue(body, new TypeReference<ApiResponse<List<Product>>>() { });
+		assertThat(response.getData()).extracting(Product::getSku).contains("BIN-1");
+	}
+
+	@Test
+	void jsonStaysTheDefault() throws Exception {
+		mockMvc.perform(get("/api/products/{id}", product.getId()))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+		mockMvc.perform(get("/api/products/{id}", product.getId()).accept(MediaType.ALL))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	void writesAcceptCborBodies() throws Exception {
+		ObjectMapper cbor = mapperFor(MediaType.APPLICATION_CBOR);
+		ProductDTO dto = new ProductDTO("Ink", "Blue ink", new BigDecimal("4.25"), 30, "Stationery", "Acme", "BIN-2");
+
+		byte[] body = mockMvc.perform(post("/api/products").contentType(MediaType.APPLICATION_CBOR)
+						.accept(MediaType.APPLICATION_CBOR).content(cbor.writeValueAsBytes(dto)))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsByteArray();
+
+		Product created = cbor.readValue(body, new TypeReference<ApiResponse<Product>>() { }).getData();
+		assertThat(productRepository.findById(created.getId())).get()
+				.extracting(Product::getPrice).isEqualTo(new BigDecimal("4.25"));
+	}
+
+	private ObjectMapper mapperFor(MediaType type) {
+		return BinaryFormatConfig.binaryMapper(mapperBuilder,
+				type.equals(SMILE) ? new SmileFactory() : new CBORFactory());
+	}
+}
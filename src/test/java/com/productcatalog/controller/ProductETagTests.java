@@ -0,0 +1,133 @@
+package com.productcatalog.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.productcatalog.dto.ProductDTO;
+import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductRepository;
+import com.productcatalog.service.ProductService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductETagTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductService productService;
+
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		// Created through the service so the price index serves it to /price-range as well
+		product = productService.createProduct(new ProductDTO("Kettle", "Steel kettle", new BigDecimal("35.00"), 4,
+				"Kitchen", "Acme", "ET-1"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		// Through the service, so the cache and indexes forget the SKU and price too
+		productService.deleteProduct(product.getId());
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void matchingIfNoneMatchIsNotModified() throws Exception {
+		String eTag = "\"" + product.getId() + "-" + product.getVersion() + "\"";
+
+		mockMvc.perform(get("/api/products/{id}", product.getId()))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag));
+		mockMvc.perform(get("/api/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+		mockMvc.perform(get("/api/products/sku/{sku}", "ET-1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void listResponsesRevalidateToo() throws Exception {
+		String eTag = mockMvc.perform(get("/api/products/price-range").param("minPrice", "30").param("maxPrice", "40"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data[*].sku").value(contains("ET-1")))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/products/price-range").param("minPrice", "30").param("maxPrice", "40")
+						.header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(put("/api/products/{id}", product.getId())
+						.contentType(MediaType.APPLICATION_JSON).content(body("36.00")))
+				.andExpect(status().isOk());
+		String updated = mockMvc.perform(get("/api/products/price-range").param("minPrice", "30").param("maxPrice", "40")
+						.header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data[0].price").value(36.0))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertThat(updated).isNotNull().isNotEqualTo(eTag);
+	}
+
+	@Test
+	void staleIfMatchIsRejectedAndCurrentOneWins() throws Exception {
+		String current = "\"" + product.getId() + "-" + product.getVersion() + "\"";
+		String stale = "\"" + product.getId() + "-" + (product.getVersion() + 1) + "\"";
+
+		mockMvc.perform(put("/api/products/{id}", product.getId()).header(HttpHeaders.IF_MATCH, stale)
+						.contentType(MediaType.APPLICATION_JSON).content(body("40.00")))
+				.andExpect(status().isPreconditionFailed());
+		String updated = mockMvc.perform(put("/api/products/{id}", product.getId()).header(HttpHeaders.IF_MATCH, current)
+						.contentType(MediaType.APPLICATION_JSON).content(body("41.00")))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertThat(updated).isNotEqualTo(current);
+		mockMvc.perform(get("/api/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, current))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, updated));
+		mockMvc.perform(delete("/api/products/{id}", product.getId()).header(HttpHeaders.IF_MATCH, current))
+				.andExpect(status().isPreconditionFailed());
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getPrice())
+				.isEqualByComparingTo("41.00");
+	}
+
+	@Test
+	void ifMatchForAnotherProductOrWeakTagNeverMatches() {
+		assertThat(ProductETags.expectedVersion(null, 7L)).isNull();
+		assertThat(ProductETags.expectedVersion("*", 7L)).isNull();
+		assertThat(ProductETags.expectedVersion("\"7-3\"", 7L)).isEqualTo(3L);
+		assertThat(ProductETags.expectedVersion("\"8-3\"", 7L)).isEqualTo(-1L);
+		assertThat(ProductETags.expectedVersion("W/\"7-3\"", 7L)).isEqualTo(-1L);
+		assertThat(ProductETags.expectedVersion("\"7-x\"", 7L)).isEqualTo(-1L);
+	}
+
+	private static String body(String price) {
+		return "{\"name\":\"Kettle\",\"description\":\"Steel kettle\",\"price\":" + price
+				+ ",\"stockQuantity\":4,\"category\":\"Kitchen\",\"brand\":\"Acme\",\"sku\":\"ET-1\"}";
+	}
+}
@@ -0,0 +1,72 @@
+package com.productcatalog.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductStreamTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void ndjsonStreamsEveryProductOnItsOwnLine() throws Exception {
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < 250; i++) {
+			products.add(new Product("Item " + i, "Streamed", new BigDecimal("3.00"), i, "Stream", "Acme", "ND-" + i));
+		}
+		productRepository.saveAll(products);
+
+		MvcResult started = mockMvc.perform(get("/api/products").accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+		assertThat(body).endsWith("\n");
+		List<String> skus = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			JsonNode product = objectMapper.readTree(line);
+			assertThat(product.isObject()).isTrue();
+			skus.add(product.get("sku").asText());
+		}
+		assertThat(skus).hasSize(250).doesNotHaveDuplicates().allMatch(sku -> sku.startsWith("ND-"));
+	}
+}
@@ -0,0 +1,86 @@
+package com.productcatalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.productcatalog.entity.Product;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.productcatalog.repository.RecordingStatementInspector")
+@AutoConfigureMockMvc
+class ProductFieldsTests {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		productRepository.saveAndFlush(new Product("Desk", "A very long description", new BigDecimal("120.00"), 2,
+				"Office", "Acme", "FLD-1"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void onlySelectedColumnsAreRead() {
+		RecordingStatementInspector.statements.clear();
+		List<Map<String, Object>> rows = productRepository.findFields(
+				(root, query, cb) -> cb.equal(root.get("category"), "Office"), ProductFields.parse("summary"), Sort.by("id"));
+
+		assertThat(rows).singleElement().satisfies(row -> {
+			assertThat(row).containsOnlyKeys("id", "name", "price", "sku");
+			assertThat(row).containsEntry("sku", "FLD-1");
+		});
+		String sql = RecordingStatementInspector.statements.stream()
+				.filter(statement -> statement.startsWith("select"))
+				.reduce((first, second) -> second)
+				.orElseThrow();
+		assertThat(sql).contains("name", "price", "sku").doesNotContain("description", "stock_quantity");
+	}
+
+	@Test
+	void parsesViewsAndPropertyLists() {
+		assertThat(ProductFields.parse("Summary").names()).containsExactly("id", "name", "price", "sku");
+		assertThat(ProductFields.parse(" price, name ,price").names()).containsExactly("price", "name");
+		assertThat(ProductFields.parse("name").including("id").names()).containsExactly("id", "name");
+		assertThatThrownBy(() -> ProductFields.parse("name,secret"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageStartingWith("Unknown product field: secret");
+		assertThatThrownBy(() -> ProductFields.parse(" , "))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void listEndpointsReturnOnlyRequestedFields() throws Exception {
+		mockMvc.perform(get("/api/products/category/{category}", "Office").param("fields", "name,price"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data[0].name").value("Desk"))
+				.andExpect(jsonPath("$.data[0].price").value(120.00))
+				.andExpect(jsonPath("$.data[0].description").doesNotExist())
+				.andExpect(jsonPath("$.data[0].id").doesNotExist());
+		mockMvc.perform(get("/api/products/category/{category}", "Office").param("fields", "name,secret"))
+				.andExpect(status().isBadRequest());
+	}
+}
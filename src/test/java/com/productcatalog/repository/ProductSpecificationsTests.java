@@ -0,0 +1,129 @@
+package com.productcatalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.productcatalog.dto.ProductFilter;
+import com.productcatalog.entity.Product;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.productcatalog.repository.RecordingStatementInspector")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductSpecificationsTests {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void setUp() {
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			Product product = new Product("Product " + i, "Description " + i, new BigDecimal(10 + i % 90),
+					i % 40, "Category" + (i % 10), "Brand" + (i % 25), "SPEC-" + i);
+			product.setIsActive(i % 3 != 0);
+			products.add(product);
+		}
+		productRepository.saveAllAndFlush(products);
+		// Fresh statistics so H2 costs the indexes against a populated table
+		jdbcTemplate.execute("ANALYZE");
+	}
+
+	@AfterAll
+	void tearDown() {
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void combinesAllFilters() {
+		ProductFilter filter = new ProductFilter();
+		filter.setCategory("Category4");
+		filter.setActive(true);
+		filter.setMinPrice(new BigDecimal("20"));
+		filter.setMaxPrice(new BigDecimal("60"));
+		filter.setMinStock(10);
+		filter.setKeyword("product 1");
+
+		List<Product> products = productRepository.findAll(ProductSpecifications.matching(filter), Sort.by("id"));
+
+		assertThat(products).isNotEmpty().allSatisfy(product -> {
+			assertThat(product.getCategory()).isEqualTo("Category4");
+			assertThat(product.getIsActive()).isTrue();
+			assertThat(product.getPrice()).isBetween(new BigDecimal("20"), new BigDecimal("60"));
+			assertThat(product.getStockQuantity()).isGreaterThanOrEqualTo(10);
+			assertThat(product.getName()).startsWith("Product 1");
+		});
+	}
+
+	@Test
+	void keywordWildcardsAreMatchedLiterally() {
+		ProductFilter filter = new ProductFilter();
+		filter.setKeyword("%");
+
+		assertThat(productRepository.findAll(ProductSpecifications.matching(filter))).isEmpty();
+	}
+
+	@Test
+	void categoryActivePriceFilterUsesCompositeIndex() {
+		ProductFilter filter = new ProductFilter();
+		filter.setCategory("Category4");
+		filter.setActive(true);
+		filter.setMinPrice(new BigDecimal("20"));
+		filter.setMaxPrice(new BigDecimal("60"));
+
+		assertThat(planOf(filter, "Category4", true, new BigDecimal("20"), new BigDecimal("60")))
+				.containsIgnoringCase("IDX_PRODUCTS_CATEGORY_ACTIVE_PRICE");
+	}
+
+	@Test
+	void brandFilterUsesBrandIndex() {
+		ProductFilter filter = new ProductFilter();
+		filter.setBrand("Brand7");
+		filter.setActive(false);
+
+		assertThat(planOf(filter, "Brand7", false)).containsIgnoringCase("IDX_PRODUCTS_BRAND_ACTIVE_PRICE");
+	}
+
+	@Test
+	void priceRangeFilterUsesPriceIndex() {
+		ProductFilter filter = new ProductFilter();
+		filter.setMinPrice(new BigDecimal("95"));
+		filter.setMaxPrice(new BigDecimal("99"));
+
+		assertThat(planOf(filter, new BigDecimal("95"), new BigDecimal("99"))).containsIgnoringCase("IDX_PRODUCTS_PRICE");
+	}
+
+	@Test
+	void stockThresholdUsesStockIndex() {
+		ProductFilter filter = new ProductFilter();
+		filter.setMinStock(38);
+
+		assertThat(planOf(filter, 38)).containsIgnoringCase("IDX_PRODUCTS_STOCK_QUANTITY");
+	}
+
+	// Runs the Specification, then asks H2 to explain the exact SQL Hibernate generated
+	private String planOf(ProductFilter filter, Object... parameters) {
+		RecordingStatementInspector.statements.clear();
+		productRepository.findAll(ProductSpecifications.matching(filter));
+		String sql = RecordingStatementInspector.statements.stream()
+				.filter(statement -> statement.startsWith("select"))
+				.reduce((first, second) -> second)
+				.orElseThrow();
+		return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters));
+	}
+
+}
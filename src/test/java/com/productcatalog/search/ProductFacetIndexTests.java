@@ -0,0 +1,69 @@
+package com.productcatalog.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.productcatalog.dto.ProductFacets;
+import com.productcatalog.entity.Product;
+
+class ProductFacetIndexTests {
+
+	private ProductFacetIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ProductFacetIndex();
+		index.rebuild(List.of(
+				product(1L, "Books", "Acme", true, 0L),
+				product(2L, "Books", "Deskly", false, 0L),
+				product(3L, "Games", "Acme", true, 0L)));
+	}
+
+	@Test
+	void countsByCategoryBrandAndActiveState() {
+		ProductFacets counts = index.counts();
+
+		assertThat(counts.getTotal()).isEqualTo(3);
+		assertThat(counts.getActive()).isEqualTo(2);
+		assertThat(counts.getCategories()).isEqualTo(Map.of("Books", 2L, "Games", 1L));
+		assertThat(index.counts(new long[] { 2L, 3L, 9L }).getBrands()).isEqualTo(Map.of("Acme", 1L, "Deskly", 1L));
+	}
+
+	@Test
+	void updateMovesCountsAndRemoveDropsThem() {
+		index.index(product(2L, "Games", "Deskly", true, 1L));
+		index.remove(1L);
+
+		ProductFacets counts = index.counts();
+		assertThat(counts.getTotal()).isEqualTo(2);
+		assertThat(counts.getActive()).isEqualTo(2);
+		assertThat(counts.getCategories()).isEqualTo(Map.of("Games", 2L));
+	}
+
+	@Test
+	void olderUpdateArrivingLateIsIgnored() {
+		index.index(product(2L, "Games", "Deskly", true, 2L));
+		index.index(product(2L, "Toys", "Deskly", false, 1L));
+		index.remove(3L);
+		index.index(product(3L, "Games", "Acme", true, 1L));
+
+		ProductFacets counts = index.counts();
+		assertThat(counts.getTotal()).isEqualTo(2);
+		assertThat(counts.getCategories()).isEqualTo(Map.of("Books", 1L, "Games", 1L));
+		assertThat(counts.getActive()).isEqualTo(2);
+	}
+
+	private static Product product(Long id, String category, String brand, boolean active, long version) {
+		Product product = new Product("Product " + id, null, new BigDecimal("1.00"), 1, category, brand, "SKU-" + id);
+		product.setId(id);
+		product.setIsActive(active);
+		product.setVersion(version);
+		return product;
+	}
+}
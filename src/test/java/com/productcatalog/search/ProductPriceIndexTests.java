@@ -0,0 +1,104 @@
+package com.productcatalog.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.productcatalog.entity.Product;
+
+class ProductPriceIndexTests {
+
+	private ProductPriceIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ProductPriceIndex();
+		index.rebuild(List.of(
+				product(1L, "19.99", "Books", true),
+				product(2L, "5.00", "Books", false),
+				product(3L, "19.99", "Games", true),
+				product(4L, "49.50", "Games", true)));
+	}
+
+	@Test
+	void rangeIsInclusiveAndOrderedByPriceThenId() {
+		assertThat(index.findIds(new BigDecimal("5.00"), new BigDecimal("19.99"), null, false))
+				.containsExactly(2L, 1L, 3L);
+		assertThat(index.findIds(new BigDecimal("5.001"), new BigDecimal("49.499"), null, false))
+				.containsExactly(1L, 3L);
+	}
+
+	@Test
+	void categoryAndActiveFiltersApplyDuringSlice() {
+		assertThat(index.findIds(null, null, "Books", true)).containsExactly(1L);
+		assertThat(index.findIds(null, new BigDecimal("20"), "Games", false)).containsExactly(3L);
+	}
+
+	@Test
+	void boundsBeyondLongRangeClampInsteadOfOverflowing() {
+		assertThat(index.findIds(new BigDecimal("1"), new BigDecimal("1e30"), null, false))
+				.containsExactly(2L, 1L, 3L, 4L);
+		assertThat(index.findIds(new BigDecimal("-1e30"), new BigDecimal("5.00"), null, false))
+				.containsExactly(2L);
+		assertThat(index.findIds(new BigDecimal("1e30"), null, null, false)).isEmpty();
+	}
+
+	@Test
+	void updatesMoveAndRemoveEntries() {
+		index.index(product(1L, "60.00", "Books", true));
+		index.remove(2L);
+		index.index(product(5L, "1.00", "Toys", true));
+
+		assertThat(index.findIds(null, null, null, false)).containsExactly(5L, 3L, 4L, 1L);
+		assertThat(index.size()).isEqualTo(4);
+	}
+
+	@Test
+	void largeBatchesAreMergedInOnePass() {
+		List<Product> batch = new ArrayList<>();
+		for (long id = 10; id < 110; id++) {
+			batch.add(product(id, "100.00", "Bulk", true));
+		}
+		batch.add(product(1L, "0.50", "Books", true));
+		index.indexAll(batch);
+
+		assertThat(index.size()).isEqualTo(104);
+		assertThat(index.findIds(null, new BigDecimal("5.00"), null, false)).containsExactly(1L, 2L);
+		assertThat(index.findIds(new BigDecimal("100"), null, "Bulk", true)).hasSize(100).startsWith(10L);
+	}
+
+	@Test
+	void olderUpdatesArrivingLateAreIgnored() {
+		index.index(versioned(product(1L, "30.00", "Books", true), 2L));
+		index.index(versioned(product(1L, "25.00", "Books", true), 1L));
+		index.remove(2L);
+		index.index(product(2L, "5.00", "Books", false));
+
+		List<Product> batch = new ArrayList<>();
+		for (long id = 10; id < 110; id++) {
+			batch.add(product(id, "100.00", "Bulk", true));
+		}
+		batch.add(versioned(product(1L, "1.00", "Books", true), 1L));
+		index.indexAll(batch);
+
+		assertThat(index.findIds(null, new BigDecimal("30.00"), null, false)).containsExactly(3L, 1L);
+		assertThat(index.size()).isEqualTo(103);
+	}
+
+	private static Product versioned(Product product, long version) {
+		product.setVersion(version);
+		return product;
+	}
+
+	private static Product product(Long id, String price, String category, boolean active) {
+		Product product = new Product("Product " + id, null, new BigDecimal(price), 1, category, null, "SKU-" + id);
+		product.setId(id);
+		product.setIsActive(active);
+		return product;
+	}
+}
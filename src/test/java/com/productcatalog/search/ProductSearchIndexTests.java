@@ -0,0 +1,82 @@
+package com.productcatalog.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.productcatalog.entity.Product;
+
+class ProductSearchIndexTests {
+
+	private ProductSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ProductSearchIndex();
+		index.index(product(1L, "Trail Running Shoe", "Lightweight shoe for rough terrain", "Footwear", "Acme"));
+		index.index(product(2L, "Running Socks", "Breathable socks", "Apparel", "Acme"));
+		index.index(product(3L, "Laptop Stand", "Aluminium stand for running meetings", "Office", "Deskly"));
+	}
+
+	@Test
+	void andQueryRequiresEveryTerm() {
+		List<Product> results = index.search("running shoe", SearchOperator.AND, 0);
+
+		assertThat(results).extracting(Product::getId).containsExactly(1L);
+	}
+
+	@Test
+	void orQueryRanksNameMatchesAboveDescriptionMatches() {
+		List<Product> results = index.search("running", SearchOperator.OR, 0);
+
+		assertThat(results).extracting(Product::getId).containsExactly(1L, 2L, 3L);
+	}
+
+	@Test
+	void prefixTermsMatchAndLimitIsApplied() {
+		assertThat(index.search("lapt", SearchOperator.AND, 0)).extracting(Product::getId).containsExactly(3L);
+		assertThat(index.search("acme", SearchOperator.AND, 1)).hasSize(1);
+	}
+
+	@Test
+	void reindexAndRemoveKeepPostingsInSync() {
+		index.index(product(2L, "Wool Socks", "Warm socks", "Apparel", "Acme"));
+		index.remove(1L);
+
+		assertThat(index.search("running", SearchOperator.OR, 0)).extracting(Product::getId).containsExactly(3L);
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	@Test
+	void olderUpdateArrivingLateIsIgnored() {
+		Product newer = product(2L, "Wool Socks", "Warm socks", "Apparel", "Acme");
+		newer.setVersion(3L);
+		Product older = product(2L, "Cotton Socks", "Thin socks", "Apparel", "Acme");
+		older.setVersion(2L);
+
+		index.index(newer);
+		index.index(older);
+
+		assertThat(index.search("wool", SearchOperator.AND, 0)).extracting(Product::getId).containsExactly(2L);
+		assertThat(index.search("cotton", SearchOperator.AND, 0)).isEmpty();
+	}
+
+	@Test
+	void updateArrivingAfterRemoveDoesNotBringProductBack() {
+		index.remove(3L);
+		index.index(product(3L, "Laptop Stand", "Aluminium stand", "Office", "Deskly"));
+
+		assertThat(index.search("laptop", SearchOperator.AND, 0)).isEmpty();
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	private static Product product(Long id, String name, String description, String category, String brand) {
+		Product product = new Product(name, description, new BigDecimal("10.00"), 5, category, brand, "SKU-" + id);
+		product.setId(id);
+		return product;
+	}
+}
@@ -0,0 +1,89 @@
+package com.productcatalog.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.productcatalog.entity.Product;
+import com.productcatalog.search.ProductStockIndex.StockChange;
+
+class ProductStockIndexTests {
+
+	private ProductStockIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ProductStockIndex();
+		index.rebuild(List.of(
+				product(1L, 5, "Books"),
+				product(2L, 0, "Books"),
+				product(3L, 5, "Games"),
+				product(4L, 40, "Games")));
+	}
+
+	@Test
+	void rangesAreOrderedByStockThenId() {
+		assertThat(index.findIdsWithStockGreaterThan(0)).containsExactly(1L, 3L, 4L);
+		assertThat(index.findIdsWithStockGreaterThan(5)).containsExactly(4L);
+		assertThat(index.findIdsWithStockAtMost(5, null)).containsExactly(2L, 1L, 3L);
+		assertThat(index.findIdsWithStockAtMost(5, "Games")).containsExactly(3L);
+		assertThat(index.findIdsWithStockAtMost(Integer.MAX_VALUE, null)).hasSize(4);
+	}
+
+	@Test
+	void updatesReportThePreviousLevel() {
+		StockChange change = index.index(product(4L, 3, "Games"));
+
+		assertThat(change.previousStock()).isEqualTo(40);
+		assertThat(change.currentStock()).isEqualTo(3);
+		assertThat(index.findIdsWithStockAtMost(5, null)).containsExactly(2L, 4L, 1L, 3L);
+		assertThat(index.index(product(4L, 3, "Games"))).isNull();
+	}
+
+	@Test
+	void batchesReturnOnlyMovedLevels() {
+		List<StockChange> changes = index.indexAll(List.of(
+				product(1L, 5, "Books"),
+				product(2L, 7, "Books"),
+				product(9L, 1, "Toys")));
+
+		assertThat(changes).extracting(StockChange::productId).containsExactly(2L, 9L);
+		assertThat(changes.get(1).previousStock()).isNull();
+		assertThat(index.size()).isEqualTo(5);
+	}
+
+	@Test
+	void removedProductsLeaveTheIndex() {
+		index.remove(1L);
+		index.remove(99L);
+
+		assertThat(index.findIdsWithStockAtMost(5, "Books")).containsExactly(2L);
+		assertThat(index.size()).isEqualTo(3);
+	}
+
+	@Test
+	void olderLevelsArrivingLateAreIgnored() {
+		Product newer = product(4L, 2, "Games");
+		newer.setVersion(5L);
+		Product older = product(4L, 30, "Games");
+		older.setVersion(4L);
+
+		assertThat(index.index(newer)).isNotNull();
+		assertThat(index.index(older)).isNull();
+		index.remove(3L);
+		assertThat(index.indexAll(List.of(product(3L, 9, "Games")))).isEmpty();
+
+		assertThat(index.findIdsWithStockAtMost(5, "Games")).containsExactly(4L);
+		assertThat(index.findIdsWithStockGreaterThan(5)).isEmpty();
+	}
+
+	private static Product product(Long id, int stock, String category) {
+		Product product = new Product("Product " + id, null, new BigDecimal("1.00"), stock, category, null, "SKU-" + id);
+		product.setId(id);
+		return product;
+	}
+}
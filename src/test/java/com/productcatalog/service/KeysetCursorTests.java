@@ -0,0 +1,60 @@
+package com.productcatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class KeysetCursorTests {
+
+	@Test
+	void roundTripsEverySortValueType() {
+		assertRoundTrip(new KeysetCursor(ProductSortField.ID, Sort.Direction.ASC, 42L, 42L));
+		assertRoundTrip(new KeysetCursor(ProductSortField.PRICE, Sort.Direction.DESC, new BigDecimal("19.90"), 7L));
+		assertRoundTrip(new KeysetCursor(ProductSortField.STOCK_QUANTITY, Sort.Direction.ASC, 0, 3L));
+		assertRoundTrip(new KeysetCursor(ProductSortField.CREATED_AT, Sort.Direction.DESC,
+				LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000), 9L));
+	}
+
+	@Test
+	void sortValueMayContainTheSeparator() {
+		assertRoundTrip(new KeysetCursor(ProductSortField.NAME, Sort.Direction.ASC, "Line one\nline two", 5L));
+	}
+
+	@Test
+	void tokenIsUrlSafe() {
+		String token = new KeysetCursor(ProductSortField.NAME, Sort.Direction.ASC, "??>>~~", 1L).encode();
+
+		assertThat(token).matches("[A-Za-z0-9_-]+");
+	}
+
+	@Test
+	void malformedTokensAreRejected() {
+		assertInvalid("not base64!");
+		assertInvalid(encode("price\nASC\n1"));
+		assertInvalid(encode("brand\nASC\n1\nAcme"));
+		assertInvalid(encode("price\nUP\n1\n10.00"));
+		assertInvalid(encode("price\nASC\nx\n10.00"));
+		assertInvalid(encode("price\nASC\n1\nten"));
+	}
+
+	private static void assertRoundTrip(KeysetCursor cursor) {
+		assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	private static void assertInvalid(String token) {
+		assertThatThrownBy(() -> KeysetCursor.decode(token))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid page cursor");
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,100 @@
+package com.productcatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.productcatalog.dto.ProductBatchResult;
+import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductBatchLookupTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void resultsFollowRequestOrderAndReportMisses() {
+		Product first = save("MG-1");
+		Product second = save("MG-2");
+		Product third = save("MG-3");
+		long unknownId = third.getId() + 1000;
+
+		ProductBatchResult result = productService.getProducts(
+				List.of(third.getId(), first.getId(), unknownId, second.getId(), first.getId()),
+				List.of("MG-2", "MG-404"));
+
+		assertThat(result.getProducts()).extracting(Product::getId)
+				.containsExactly(third.getId(), first.getId(), second.getId(), second.getId());
+		assertThat(result.getMissingIds()).containsExactly(unknownId);
+		assertThat(result.getMissingSkus()).containsExactly("MG-404");
+	}
+
+	@Test
+	void lookupsLargerThanOneChunkKeepOrderAndUseTheCache() {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 250; i++) {
+			ids.add(save("MG-BULK-" + i).getId());
+		}
+		Collections.reverse(ids);
+
+		assertThat(productService.getProducts(ids, null).getProducts()).extracting(Product::getId)
+				.containsExactlyElementsOf(ids);
+		// A repeat lookup is served from the cache, so rows deleted behind its back still come back
+		productRepository.deleteAllInBatch();
+		assertThat(productService.getProducts(ids.subList(0, 10), null).getProducts()).extracting(Product::getId)
+				.containsExactlyElementsOf(ids.subList(0, 10));
+	}
+
+	@Test
+	void endpointsValidateTheRequest() throws Exception {
+		Product product = save("MG-4");
+
+		mockMvc.perform(get("/api/products/batch").param("ids", String.valueOf(product.getId())).param("skus", "MG-9"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.products[0].sku").value("MG-4"))
+				.andExpect(jsonPath("$.data.missingSkus[0]").value("MG-9"));
+		mockMvc.perform(post("/api/products/batch").contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[]}"))
+				.andExpect(status().isBadRequest());
+		StringBuilder tooMany = new StringBuilder("{\"ids\":[1");
+		for (int i = 2; i <= 501; i++) {
+			tooMany.append(',').append(i);
+		}
+		mockMvc.perform(post("/api/products/batch").contentType(MediaType.APPLICATION_JSON)
+						.content(tooMany.append("]}").toString()))
+				.andExpect(status().isBadRequest());
+	}
+
+	private Product save(String sku) {
+		return productRepository.saveAndFlush(new Product("Item " + sku, "Batch lookup item", new BigDecimal("3.00"), 1,
+				"Misc", "Acme", sku));
+	}
+}
@@ -0,0 +1,134 @@
+package com.productcatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.productcatalog.dto.BulkOperationResult;
+import com.productcatalog.dto.BulkRowResult;
+import com.productcatalog.dto.ProductDTO;
+import com.productcatalog.entity.Product;
+import com.productcatalog.entity.ProductChange;
+import com.productcatalog.repository.ProductRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductBulkSaveTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void largeLoadsUseSetBasedSkuChecksAndBatchedInserts() {
+		List<ProductDTO> dtos = new ArrayList<>();
+		for (int i = 0; i < 1200; i++) {
+			dtos.add(dto("BULK-" + i, "10.00"));
+		}
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		BulkOperationResult result = productService.bulkSaveProducts(dtos, false);
+
+		assertThat(result.getCreated()).isEqualTo(1200);
+		assertThat(result.getFailed()).isZero();
+		assertThat(productRepository.count()).isEqualTo(1200);
+		assertThat(statistics.getEntityStatistics(Product.class.getName()).getInsertCount()).isEqualTo(1200);
+		assertThat(statistics.getEntityStatistics(ProductChange.class.getName()).getInsertCount()).isEqualTo(1200);
+		// Each 500-row chunk is flushed together with its change entries, not held until commit
+		assertThat(statistics.getFlushCount()).isGreaterThanOrEqualTo(3);
+		// Row by row this would be an existence check and an insert per product, 2400 statements or more
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(200);
+	}
+
+	@Test
+	void invalidRowsFailIndividuallyWithoutRollingBackTheRest() {
+		productService.bulkSaveProducts(List.of(dto("BULK-TAKEN", "5.00")), false);
+
+		BulkOperationResult result = productService.bulkSaveProducts(List.of(
+				dto("BULK-A", "10.00"),
+				dto("BULK-B", "-1.00"),
+				dto("BULK-A", "12.00"),
+				dto("BULK-TAKEN", "6.00"),
+				dto("BULK-C", "11.00")), false);
+
+		assertThat(result.getRows())
+				.extracting(BulkRowResult::getIndex, BulkRowResult::getSku, BulkRowResult::getStatus)
+				.containsExactly(
+						tuple(0, "BULK-A", BulkRowResult.Status.CREATED),
+						tuple(1, "BULK-B", BulkRowResult.Status.FAILED),
+						tuple(2, "BULK-A", BulkRowResult.Status.FAILED),
+						tuple(3, "BULK-TAKEN", BulkRowResult.Status.FAILED),
+						tuple(4, "BULK-C", BulkRowResult.Status.CREATED));
+		assertThat(result.getRows().get(1).getMessage()).isEqualTo("Price must be greater than 0");
+		assertThat(result.getCreated()).isEqualTo(2);
+		assertThat(result.getFailed()).isEqualTo(3);
+		assertThat(productRepository.findBySku("BULK-A")).get()
+				.extracting(Product::getPrice).isEqualTo(new BigDecimal("10.00"));
+		assertThat(productRepository.findBySku("BULK-B")).isEmpty();
+		assertThat(productRepository.findBySku("BULK-TAKEN")).get()
+				.extracting(Product::getPrice).isEqualTo(new BigDecimal("5.00"));
+	}
+
+	@Test
+	void upsertUpdatesExistingSkusInPlace() {
+		Long id = productService.bulkSaveProducts(List.of(dto("BULK-UP", "5.00")), false).getRows().get(0).getId();
+
+		BulkOperationResult result = productService.bulkSaveProducts(List.of(
+				dto("BULK-UP", "7.50"),
+				dto("BULK-NEW", "3.00")), true);
+
+		assertThat(result.getRows())
+				.extracting(BulkRowResult::getStatus, BulkRowResult::getId)
+				.first().isEqualTo(tuple(BulkRowResult.Status.UPDATED, id));
+		assertThat(result.getUpdated()).isEqualTo(1);
+		assertThat(result.getCreated()).isEqualTo(1);
+		assertThat(productRepository.findById(id)).get()
+				.extracting(Product::getPrice).isEqualTo(new BigDecimal("7.50"));
+		assertThat(productService.getProductBySku("BULK-UP")).get()
+				.extracting(Product::getPrice).isEqualTo(new BigDecimal("7.50"));
+	}
+
+	@Test
+	void wideIndexRangesAreReadWithOneRangeQuery() {
+		List<ProductDTO> dtos = new ArrayList<>();
+		for (int i = 0; i < 1500; i++) {
+			dtos.add(dto("BULK-R" + i, new BigDecimal("7000.00").add(BigDecimal.valueOf(1500 - i, 2)).toPlainString()));
+		}
+		productService.bulkSaveProducts(dtos, false);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<Product> products = productService.getProductsByPriceRange(new BigDecimal("7000.00"), new BigDecimal("7100.00"));
+
+		assertThat(products).hasSize(1500);
+		assertThat(products).extracting(Product::getPrice).isSortedAccordingTo(BigDecimal::compareTo);
+		// Chunked by id this would be 15 IN lookups
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	private static ProductDTO dto(String sku, String price) {
+		return new ProductDTO("Item " + sku, "Bulk test item", new BigDecimal(price), 4, "Bulk", "Acme", sku);
+	}
+}
@@ -0,0 +1,173 @@
+package com.productcatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.productcatalog.dto.ChangeFeed;
+import com.productcatalog.dto.ProductChangeEvent;
+import com.productcatalog.dto.ProductDTO;
+import com.productcatalog.entity.Product;
+import com.productcatalog.entity.ProductChangeType;
+import com.productcatalog.repository.ProductRepository;
+
+@SpringBootTest
+class ProductChangeFeedTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Long existingId;
+
+	private long cursor;
+
+	@BeforeEach
+	void setUp() {
+		existingId = productService.createProduct(dto("Existing", "CF-0")).getId();
+		cursor = productService.getChanges(null, 1).getNextCursor();
+	}
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void pageIsCompactedToLatestChangePerProduct() {
+		List<Long> ids = writeSequence();
+
+		ChangeFeed feed = productService.getChanges(cursor, 100);
+
+		assertThat(feed.isHasMore()).isFalse();
+		assertThat(feed.getChanges()).extracting(ProductChangeEvent::getProductId)
+				.containsExactly(existingId, ids.get(0), ids.get(1), ids.get(2));
+		assertThat(feed.getChanges()).extracting(ProductChangeEvent::getType).containsExactly(
+				ProductChangeType.UPDATED, ProductChangeType.CREATED, ProductChangeType.CREATED, ProductChangeType.DELETED);
+		assertThat(feed.getChanges().get(1).getProduct().getName()).isEqualTo("First v3");
+		assertThat(feed.getChanges().get(3).getProduct()).isNull();
+		assertThat(feed.getNextCursor()).isEqualTo(productService.getChanges(null, 1).getNextCursor());
+	}
+
+	@Test
+	void cursorPagesThroughEveryChangeInOrder() {
+		List<Long> ids = writeSequence();
+
+		List<ChangeFeed> pages = new ArrayList<>();
+		long next = cursor;
+		ChangeFeed page;
+		do {
+			page = productService.getChanges(next, 2);
+			assertThat(page.getNextCursor()).isGreaterThan(next);
+			next = page.getNextCursor();
+			pages.add(page);
+		} while (page.isHasMore());
+
+		assertThat(pages).hasSize(4);
+		List<Long> changeIds = pages.stream().flatMap(p -> p.getChanges().stream()).map(ProductChangeEvent::getChangeId).toList();
+		assertThat(changeIds).isSorted().doesNotHaveDuplicates();
+		// First page: p1 created then updated; second: the existing product and p1 updated
+		assertThat(pages.get(0).getChanges()).extracting(ProductChangeEvent::getType).containsExactly(ProductChangeType.CREATED);
+		assertThat(pages.get(1).getChanges()).extracting(ProductChangeEvent::getType)
+				.containsExactly(ProductChangeType.UPDATED, ProductChangeType.UPDATED);
+		// p3 is deleted by a later page, so its creation already reads as a tombstone
+		assertThat(pages.get(2).getChanges()).extracting(ProductChangeEvent::getProductId).containsExactly(ids.get(1), ids.get(2));
+		assertThat(pages.get(2).getChanges().get(1).getType()).isEqualTo(ProductChangeType.DELETED);
+		assertThat(productService.getChanges(next, 2).getChanges()).isEmpty();
+	}
+
+	@Test
+	void laterCommitIsHeldBackUntilEarlierChangeCommits() throws Exception {
+		CountDownLatch allocated = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService writer = Executors.newSingleThreadExecutor();
+		try {
+			Future<Long> slow = writer.submit(() -> transactionTemplate.execute(status -> {
+				Long id = productService.createProduct(dto("Slow", "CF-SLOW")).getId();
+				allocated.countDown();
+				await(release);
+				return id;
+			}));
+			assertThat(allocated.await(10, TimeUnit.SECONDS)).isTrue();
+
+			// Committed, but its change id is above the one the slow transaction holds
+			Long fast = productService.createProduct(dto("Fast", "CF-FAST")).getId();
+
+			ChangeFeed held = productService.getChanges(cursor, 100);
+			assertThat(held.getChanges()).isEmpty();
+			assertThat(held.getNextCursor()).isEqualTo(cursor);
+			assertThat(productService.getChanges(null, 1).getNextCursor()).isEqualTo(cursor);
+
+			release.countDown();
+			Long slowId = slow.get(10, TimeUnit.SECONDS);
+
+			assertThat(productService.getChanges(cursor, 100).getChanges())
+					.extracting(ProductChangeEvent::getProductId).containsExactly(slowId, fast);
+		} finally {
+			release.countDown();
+			writer.shutdown();
+		}
+	}
+
+	@Test
+	void rolledBackChangeDoesNotHoldTheFeed() {
+		assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+			productService.createProduct(dto("Rolled back", "CF-RB"));
+			throw new IllegalStateException("rollback");
+		})).isInstanceOf(IllegalStateException.class);
+		Long id = productService.createProduct(dto("Kept", "CF-KEPT")).getId();
+
+		assertThat(productService.getChanges(cursor, 100).getChanges())
+				.extracting(ProductChangeEvent::getProductId).containsExactly(id);
+	}
+
+	@Test
+	void negativeCursorIsRejected() {
+		assertThatThrownBy(() -> productService.getChanges(-1L, 10)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// create p1, update p1, update existing, update p1, create p2, create p3, delete p3
+	private List<Long> writeSequence() {
+		Product first = productService.createProduct(dto("First", "CF-1"));
+		productService.updateProduct(first.getId(), dto("First v2", "CF-1"));
+		productService.updateProduct(existingId, dto("Existing v2", "CF-0"));
+		productService.updateProduct(first.getId(), dto("First v3", "CF-1"));
+		Product second = productService.createProduct(dto("Second", "CF-2"));
+		Product third = productService.createProduct(dto("Third", "CF-3"));
+		productService.deleteProduct(third.getId());
+		return List.of(first.getId(), second.getId(), third.getId());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static ProductDTO dto(String name, String sku) {
+		return new ProductDTO(name, null, new BigDecimal("20.00"), 5, "Footwear", "Acme", sku);
+	}
+
+}
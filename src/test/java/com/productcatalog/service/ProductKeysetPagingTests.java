@@ -0,0 +1,97 @@
+package com.productcatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.productcatalog.dto.KeysetPage;
+import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductKeysetPagingTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private final List<Long> ids = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		// Five products share one price so paging by price has to break ties on id
+		for (int i = 0; i < 5; i++) {
+			ids.add(save("KS-" + i, "10.00").getId());
+		}
+		ids.add(save("KS-5", "5.00").getId());
+	}
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void equalSortValuesArePagedInIdOrderWithoutGapsOrRepeats() {
+		assertThat(pageThrough("price", Sort.Direction.ASC))
+				.containsExactly(ids.get(5), ids.get(0), ids.get(1), ids.get(2), ids.get(3), ids.get(4));
+		assertThat(pageThrough("price", Sort.Direction.DESC))
+				.containsExactly(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0), ids.get(5));
+	}
+
+	@Test
+	void timestampKeysPageEveryProduct() {
+		assertThat(pageThrough("createdAt", Sort.Direction.ASC)).containsExactlyInAnyOrderElementsOf(ids);
+		assertThat(pageThrough("updatedAt", Sort.Direction.DESC)).containsExactlyInAnyOrderElementsOf(ids);
+		assertThat(productRepository.findAll())
+				.allSatisfy(product -> assertThat(product.getCreatedAt()).isNotNull());
+	}
+
+	@Test
+	void malformedOrMismatchedCursorIsBadRequest() throws Exception {
+		mockMvc.perform(get("/api/products/page").param("mode", "keyset").param("cursor", "%%%"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Invalid page cursor"));
+
+		String priceCursor = productService.getProductsAfter(null, 2, "price", Sort.Direction.ASC, false).getNextCursor();
+		mockMvc.perform(get("/api/products/page").param("mode", "keyset").param("sortBy", "name")
+						.param("cursor", priceCursor))
+				.andExpect(status().isBadRequest());
+	}
+
+	private List<Long> pageThrough(String sortBy, Sort.Direction direction) {
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			KeysetPage<Product> page = productService.getProductsAfter(cursor, 2, sortBy, direction, false);
+			page.getContent().forEach(product -> seen.add(product.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return seen;
+	}
+
+	private Product save(String sku, String price) {
+		return productRepository.saveAndFlush(new Product("Item " + sku, "Keyset test item", new BigDecimal(price), 1,
+				"Tools", "Acme", sku));
+	}
+}
@@ -0,0 +1,105 @@
+package com.productcatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.productcatalog.cache.ProductCache;
+import com.productcatalog.dto.ProductDTO;
+import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductRepository;
+
+@SpringBootTest
+class ProductReadThroughTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@MockitoSpyBean
+	private ProductCache productCache;
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllInBatch();
+		productCache.clear();
+	}
+
+	@Test
+	void missLoadsAndCachesUntilNextWrite() {
+		Product product = productService.createProduct(dto("Boot", "RT-1"));
+
+		assertThat(productService.getProductById(product.getId())).isPresent();
+		assertThat(productCache.getById(product.getId())).isNotNull();
+		assertThat(productCache.getBySku("RT-1")).isNotNull();
+
+		productService.updateProduct(product.getId(), dto("Trail boot", "RT-2"));
+
+		assertThat(productCache.getById(product.getId())).isNull();
+		assertThat(productService.getProductBySku("RT-1")).isEmpty();
+		assertThat(productService.getProductBySku("RT-2")).get().extracting(Product::getName).isEqualTo("Trail boot");
+	}
+
+	@Test
+	void writeCommittingDuringMissDoesNotLeaveOldRowCached() throws Exception {
+		String sku = "RT-3";
+		Long id = productService.createProduct(dto("Old name", sku)).getId();
+		commitWriteAfterLoad(id, sku, "New name");
+
+		// The miss loads the old row, then the update commits and evicts before the row is stored
+		assertThat(productService.getProductById(id)).get().extracting(Product::getName).isEqualTo("Old name");
+
+		assertThat(productCache.getById(id)).isNull();
+		assertThat(productService.getProductById(id)).get().extracting(Product::getName).isEqualTo("New name");
+	}
+
+	@Test
+	void writeCommittingDuringBatchMissDoesNotLeaveOldRowCached() throws Exception {
+		String sku = "RT-4";
+		Long id = productService.createProduct(dto("Old name", sku)).getId();
+		commitWriteAfterLoad(id, sku, "New name");
+
+		productService.getProducts(List.of(id), List.of());
+
+		assertThat(productCache.getById(id)).isNull();
+		assertThat(productService.getProducts(List.of(id), List.of()).getProducts())
+				.extracting(Product::getName).containsExactly("New name");
+	}
+
+	// Between loading the product and storing it, the next reader waits for an update on another thread to commit
+	private void commitWriteAfterLoad(Long id, String sku, String newName) {
+		AtomicBoolean armed = new AtomicBoolean(true);
+		doAnswer(invocation -> {
+			if (armed.compareAndSet(true, false)) {
+				ExecutorService writer = Executors.newSingleThreadExecutor();
+				try {
+					writer.submit(() -> productService.updateProduct(id, dto(newName, sku))).get(10, TimeUnit.SECONDS);
+				} finally {
+					writer.shutdown();
+				}
+			}
+			return invocation.callRealMethod();
+		}).when(productCache).put(argThat(product -> id.equals(product.getId())), anyLong());
+	}
+
+	private static ProductDTO dto(String name, String sku) {
+		return new ProductDTO(name, null, new BigDecimal("50.00"), 10, "Footwear", "Acme", sku);
+	}
+
+}
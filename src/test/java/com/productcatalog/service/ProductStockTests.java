@@ -0,0 +1,163 @@
+package com.productcatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.productcatalog.dto.StockReservationItem;
+import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductStockTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private StockLockStripes stockLocks;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void concurrentDecrementsNeverOversell() throws Exception {
+		Product product = save("ST-1", 20);
+		int threads = 8;
+		int attemptsPerThread = 5;
+		AtomicInteger sold = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < attemptsPerThread; i++) {
+						try {
+							productService.decrementStock(product.getId(), 1);
+							sold.incrementAndGet();
+						} catch (InsufficientStockException e) {
+							rejected.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(sold.get()).isEqualTo(20);
+		assertThat(rejected.get()).isEqualTo(threads * attemptsPerThread - 20);
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isZero();
+	}
+
+	@Test
+	void reservationRollsBackWhenAnyLineIsShort() {
+		Product first = save("ST-2", 5);
+		Product second = save("ST-3", 1);
+
+		assertThatThrownBy(() -> productService.reserveStock(List.of(
+				new StockReservationItem(first.getId(), 3),
+				new StockReservationItem(second.getId(), 2))))
+				.isInstanceOf(InsufficientStockException.class);
+
+		assertThat(productRepository.findById(first.getId()).orElseThrow().getStockQuantity()).isEqualTo(5);
+		assertThat(productRepository.findById(second.getId()).orElseThrow().getStockQuantity()).isEqualTo(1);
+	}
+
+	@Test
+	void reservationRollsBackWhenAProductIsMissing() {
+		Product product = save("ST-4", 5);
+
+		assertThatThrownBy(() -> productService.reserveStock(List.of(
+				new StockReservationItem(product.getId(), 2),
+				new StockReservationItem(product.getId() + 1000, 1))))
+				.isInstanceOf(ProductNotFoundException.class);
+
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(5);
+	}
+
+	@Test
+	void invalidQuantityIsBadRequestAndUnknownProductIsNotFound() throws Exception {
+		Product product = save("ST-5", 5);
+
+		mockMvc.perform(patch("/api/products/{id}/stock/decrement", product.getId()).param("quantity", "0"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(patch("/api/products/{id}/stock/increment", product.getId()).param("quantity", "-1"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(patch("/api/products/{id}/stock", product.getId()).param("stock", "-1"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(patch("/api/products/{id}/stock/decrement", product.getId() + 1000).param("quantity", "1"))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(patch("/api/products/{id}/stock/decrement", product.getId()).param("quantity", "6"))
+				.andExpect(status().isConflict());
+	}
+
+	@Test
+	void lockTimeoutAsksTheCallerToRetry() throws Exception {
+		Product product = save("ST-6", 5);
+		CountDownLatch held = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread holder = new Thread(() -> stockLocks.withLock(product.getId(), () -> {
+			held.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		}));
+		holder.start();
+		try {
+			assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+			mockMvc.perform(patch("/api/products/{id}/stock/decrement", product.getId()).param("quantity", "1"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+		} finally {
+			release.countDown();
+			holder.join();
+		}
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(5);
+	}
+
+	private Product save(String sku, int stock) {
+		return productRepository.saveAndFlush(new Product("Item " + sku, "Stock test item", new BigDecimal("10.00"),
+				stock, "Tools", "Acme", sku));
+	}
+}
@@ -0,0 +1,122 @@
+package com.productcatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.productcatalog.dto.ProductDTO;
+import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductRepository;
+
+@SpringBootTest(properties = {
+		"catalog.write-behind.enabled=true",
+		"catalog.write-behind.flush-interval=1h",
+		"catalog.write-behind.fsync=false",
+		"catalog.data-dir=target/write-behind-index-tests" })
+@AutoConfigureMockMvc
+class ProductWriteBehindIndexTests {
+
+	@Autowired
+	private ProductServiceImpl productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@AfterEach
+	void tearDown() {
+		productService.flushPendingWrites();
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void pendingStockUpdateMovesProductBetweenStockQueries() {
+		Product product = productService.createProduct(new ProductDTO("Lamp", "Desk lamp", new BigDecimal("25.00"), 10,
+				"Lighting", "Acme", "WBI-1"));
+
+		productService.updateProductStock(product.getId(), 0);
+
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(10);
+		assertThat(ids(productService.getProductsWithMinimumStock(0))).doesNotContain(product.getId());
+		assertThat(productService.getLowStockProducts(0, "Lighting", null))
+				.extracting(Product::getId, Product::getStockQuantity)
+				.containsExactly(tuple(product.getId(), 0));
+
+		productService.flushPendingWrites();
+
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isZero();
+		assertThat(ids(productService.getProductsWithMinimumStock(0))).doesNotContain(product.getId());
+		assertThat(ids(productService.getLowStockProducts(0, "Lighting", null))).containsExactly(product.getId());
+	}
+
+	@Test
+	void pendingDeactivationIsReflectedInFacetsAndActivePriceRange() {
+		Product product = productService.createProduct(new ProductDTO("Rug", "Wool rug", new BigDecimal("140.00"), 3,
+				"Rugs", "Acme", "WBI-2"));
+		long active = productService.getFacets(null, null, null, null).getActive();
+
+		productService.deactivateProduct(product.getId());
+
+		assertThat(productService.getFacets(null, null, null, null).getActive()).isEqualTo(active - 1);
+		assertThat(productService.getProductsByPriceRange(new BigDecimal("100"), new BigDecimal("200"), "Rugs", true))
+				.isEmpty();
+
+		productService.flushPendingWrites();
+
+		assertThat(productService.getFacets(null, null, null, null).getActive()).isEqualTo(active - 1);
+		assertThat(productService.getProductsByPriceRange(new BigDecimal("100"), new BigDecimal("200"), "Rugs", true))
+				.isEmpty();
+		assertThat(productService.getProductsByPriceRange(new BigDecimal("100"), new BigDecimal("200"), "Rugs", false))
+				.extracting(Product::getIsActive)
+				.containsExactly(false);
+	}
+
+	@Test
+	void everyPendingUpdateGetsItsOwnETag() throws Exception {
+		Product product = productService.createProduct(new ProductDTO("Mug", "Tea mug", new BigDecimal("8.00"), 10,
+				"Kitchen", "Acme", "WBI-3"));
+
+		mockMvc.perform(patch("/api/products/{id}/stock", product.getId()).param("stock", "9"))
+				.andExpect(status().isOk());
+		String first = eTagOf(product.getId());
+		mockMvc.perform(patch("/api/products/{id}/stock", product.getId()).param("stock", "8"))
+				.andExpect(status().isOk());
+
+		String second = mockMvc.perform(get("/api/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, first))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.stockQuantity").value(8))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(second).isNotEqualTo(first);
+
+		// The flush advances the row by the same two versions, so the tag a client holds stays valid
+		productService.flushPendingWrites();
+		assertThat(eTagOf(product.getId())).isEqualTo(second);
+		assertThat(productRepository.findById(product.getId()).orElseThrow().getVersion())
+				.isEqualTo(product.getVersion() + 2);
+	}
+
+	private String eTagOf(Long id) throws Exception {
+		return mockMvc.perform(get("/api/products/{id}", id)).andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	private static List<Long> ids(List<Product> products) {
+		return products.stream().map(Product::getId).toList();
+	}
+}
@@ -0,0 +1,137 @@
+package com.productcatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.productcatalog.entity.Product;
+import com.productcatalog.repository.ProductRepository;
+
+@SpringBootTest
+class ProductWriteBehindTests {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ProductChangeLog changeLog;
+
+	@TempDir
+	private Path directory;
+
+	private ProductWriteBehind writeBehind;
+
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		product = productRepository.saveAndFlush(new Product("Boot", "Hiking boot", new BigDecimal("80.00"), 10,
+				"Footwear", "Acme", "WB-1"));
+		writeBehind = open();
+	}
+
+	@AfterEach
+	void tearDown() {
+		writeBehind.close();
+		productRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void updatesCoalescePerProduct() {
+		writeBehind.enqueue(product.getId(), 7, null);
+		writeBehind.enqueue(product.getId(), null, false);
+		ProductWriteBehind.PendingWrite pending = writeBehind.enqueue(product.getId(), 4, null);
+
+		assertThat(writeBehind.pendingCount()).isEqualTo(1);
+		assertThat(pending.stock()).isEqualTo(4);
+		assertThat(pending.active()).isFalse();
+
+		Product visible = pending.applyTo(product);
+		assertThat(visible.getStockQuantity()).isEqualTo(4);
+		assertThat(visible.getIsActive()).isFalse();
+		assertThat(visible.getVersion()).isEqualTo(product.getVersion() + 3);
+		assertThat(product.getStockQuantity()).isEqualTo(10);
+	}
+
+	@Test
+	void flushAppliesBatchAndDeletesJournal() throws IOException {
+		writeBehind.enqueue(product.getId(), 3, null);
+		ProductWriteBehind.Batch batch = writeBehind.drain();
+
+		assertThat(writeBehind.pending(product.getId()).stock()).isEqualTo(3);
+		List<Long> updated = transactionTemplate.execute(status -> writeBehind.apply(batch.writes()));
+		assertThat(updated).containsExactly(product.getId());
+		assertThat(writeBehind.pending(product.getId(), LocalDateTime.now().plusMinutes(1))).isNull();
+		writeBehind.complete(batch);
+
+		assertThat(writeBehind.hasPending()).isFalse();
+		assertThat(stock()).isEqualTo(3);
+		assertThat(journalSegments()).isEqualTo(1);
+		assertThat(writeBehind.drain()).isNull();
+	}
+
+	@Test
+	void journalIsReplayedOnRestart() {
+		writeBehind.enqueue(product.getId(), 2, null);
+		writeBehind.enqueue(product.getId(), null, false);
+		writeBehind.close();
+
+		writeBehind = open();
+
+		assertThat(stock()).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("SELECT version FROM products WHERE id = ?", Long.class, product.getId()))
+				.isEqualTo(product.getVersion() + 2);
+		assertThat(jdbcTemplate.queryForObject("SELECT is_active FROM products WHERE id = ?", Boolean.class, product.getId()))
+				.isFalse();
+		assertThat(writeBehind.hasPending()).isFalse();
+	}
+
+	@Test
+	void replayDoesNotOverwriteLaterWrites() {
+		writeBehind.enqueue(product.getId(), 2, null);
+		writeBehind.close();
+		jdbcTemplate.update("UPDATE products SET stock_quantity = 9, updated_at = ? WHERE id = ?",
+				LocalDateTime.now().plusMinutes(1), product.getId());
+
+		writeBehind = open();
+
+		assertThat(stock()).isEqualTo(9);
+	}
+
+	private ProductWriteBehind open() {
+		ProductWriteBehind opened = new ProductWriteBehind(jdbcTemplate, transactionTemplate, changeLog, true, true, directory);
+		opened.afterSingletonsInstantiated();
+		return opened;
+	}
+
+	private Integer stock() {
+		return jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, product.getId());
+	}
+
+	private long journalSegments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.productcatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.productcatalog.service.ReadCoalescer.Operation;
+
+class ReadCoalescerTests {
+
+	private final ReadCoalescer coalescer = new ReadCoalescer(true);
+
+	@Test
+	void concurrentIdenticalCallsShareOneLoad() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			Future<List<String>> leader = executor.submit(() -> coalescer.execute(Operation.CATEGORY, "Books", () -> {
+				loads.incrementAndGet();
+				started.countDown();
+				await(release);
+				return List.of("result");
+			}));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			List<Future<List<String>>> followers = new ArrayList<>();
+			for (int i = 0; i < 5; i++) {
+				followers.add(executor.submit(() -> coalescer.execute(Operation.CATEGORY, "Books", () -> {
+					loads.incrementAndGet();
+					return List.of("own");
+				})));
+			}
+			while (coalescer.collapsed(Operation.CATEGORY) < 5) {
+				Thread.onSpinWait();
+			}
+			release.countDown();
+
+			List<String> result = leader.get(5, TimeUnit.SECONDS);
+			for (Future<List<String>> follower : followers) {
+				assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(result);
+			}
+		}
+		assertThat(loads).hasValue(1);
+		assertThat(coalescer.calls(Operation.CATEGORY)).isEqualTo(6);
+	}
+
+	@Test
+	void differentArgumentsAndLaterCallsLoadAgain() {
+		assertThat(coalescer.execute(Operation.SEARCH, List.of("shoe"), () -> "first")).isEqualTo("first");
+		assertThat(coalescer.execute(Operation.SEARCH, List.of("shoe"), () -> "second")).isEqualTo("second");
+		assertThat(coalescer.execute(Operation.PRICE_RANGE, List.of("shoe"), () -> "third")).isEqualTo("third");
+		assertThat(coalescer.collapsed(Operation.SEARCH)).isZero();
+	}
+
+	@Test
+	void callAfterWriteDoesNotJoinEarlierFlight() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+			Future<String> before = executor.submit(() -> coalescer.execute(Operation.ACTIVE, "", () -> {
+				started.countDown();
+				await(release);
+				return "before";
+			}));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			coalescer.invalidate();
+
+			assertThat(coalescer.execute(Operation.ACTIVE, "", () -> "after")).isEqualTo("after");
+			release.countDown();
+			assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("before");
+		}
+		assertThat(coalescer.collapsed(Operation.ACTIVE)).isZero();
+	}
+
+	@Test
+	void followersReceiveLeaderFailure() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+			Future<Object> leader = executor.submit(() -> coalescer.execute(Operation.CATEGORY, "Toys", () -> {
+				started.countDown();
+				await(release);
+				throw new IllegalArgumentException("boom");
+			}));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			Thread releaser = new Thread(() -> {
+				while (coalescer.collapsed(Operation.CATEGORY) < 1) {
+					Thread.onSpinWait();
+				}
+				release.countDown();
+			});
+			releaser.start();
+
+			assertThatThrownBy(() -> coalescer.execute(Operation.CATEGORY, "Toys", () -> "own"))
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessage("boom");
+			releaser.join();
+			assertThat(leader).failsWithin(5, TimeUnit.SECONDS);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
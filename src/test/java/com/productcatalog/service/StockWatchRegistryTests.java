@@ -0,0 +1,106 @@
+package com.productcatalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.productcatalog.dto.StockCrossingDirection;
+import com.productcatalog.dto.StockCrossingEvent;
+import com.productcatalog.dto.StockCrossingFeed;
+import com.productcatalog.dto.StockWatch;
+import com.productcatalog.search.ProductStockIndex.StockChange;
+
+class StockWatchRegistryTests {
+
+	private StockWatchRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		registry = new StockWatchRegistry(3, Duration.ofSeconds(30), Duration.ofMinutes(30));
+	}
+
+	@AfterEach
+	void tearDown() {
+		registry.shutdown();
+	}
+
+	@Test
+	void crossingsAreReportedOnceInEachDirection() {
+		assertThat(StockWatchRegistry.crossing(3, change(1L, 10, 3))).isEqualTo(StockCrossingDirection.LOW);
+		assertThat(StockWatchRegistry.crossing(3, change(1L, 3, 1))).isNull();
+		assertThat(StockWatchRegistry.crossing(3, change(1L, 1, 4))).isEqualTo(StockCrossingDirection.RECOVERED);
+		assertThat(StockWatchRegistry.crossing(3, change(1L, 9, 4))).isNull();
+		assertThat(StockWatchRegistry.crossing(3, change(1L, null, 0))).isEqualTo(StockCrossingDirection.LOW);
+	}
+
+	@Test
+	void watchesMatchByCategoryOrSku() {
+		StockWatch byCategory = registry.register(watch("Books", null, 3));
+		StockWatch bySku = registry.register(watch(null, "SKU-2", 1));
+
+		registry.publish(List.of(change(1L, 10, 2), change(2L, 5, 0)));
+
+		List<StockCrossingEvent> events = poll(0L, null).getEvents();
+		assertThat(events).extracting(StockCrossingEvent::getWatchId)
+				.containsExactly(byCategory.getId(), byCategory.getId(), bySku.getId());
+		assertThat(events).extracting(StockCrossingEvent::getSequence).containsExactly(1L, 2L, 3L);
+		assertThat(poll(0L, bySku.getId()).getEvents()).extracting(StockCrossingEvent::getProductId).containsExactly(2L);
+		assertThatThrownBy(() -> registry.register(watch("Books", "SKU-2", 1))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void pendingPollCompletesWhenACrossingArrives() {
+		registry.register(watch("Books", null, 3));
+		DeferredResult<StockCrossingFeed> pending = registry.poll(null, null, 10, Duration.ofSeconds(30), Function.identity());
+		assertThat(pending.hasResult()).isFalse();
+
+		registry.publish(List.of(change(1L, 10, 2)));
+
+		assertThat(awaitResult(pending).getEvents()).extracting(StockCrossingEvent::getCurrentStock).containsExactly(2);
+		assertThat(awaitResult(pending).getNextCursor()).isEqualTo(1L);
+	}
+
+	@Test
+	void cursorsOutsideTheBufferAreRejected() {
+		registry.register(watch("Books", null, 3));
+		for (int i = 0; i < 3; i++) {
+			registry.publish(List.of(change(1L, 10, 2), change(1L, 2, 10)));
+		}
+
+		assertThat(poll(3L, null).getEvents()).extracting(StockCrossingEvent::getSequence).containsExactly(4L, 5L, 6L);
+		assertThatThrownBy(() -> poll(2L, null)).isInstanceOf(StockEventsExpiredException.class);
+		assertThatThrownBy(() -> poll(7L, null)).isInstanceOf(StockEventsExpiredException.class);
+	}
+
+	private StockCrossingFeed poll(Long after, Long watchId) {
+		return awaitResult(registry.poll(after, watchId, 100, Duration.ZERO, Function.identity()));
+	}
+
+	private static StockCrossingFeed awaitResult(DeferredResult<StockCrossingFeed> result) {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!result.hasResult() && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		return (StockCrossingFeed) result.getResult();
+	}
+
+	private static StockWatch watch(String category, String sku, int threshold) {
+		StockWatch watch = new StockWatch();
+		watch.setCategory(category);
+		watch.setSku(sku);
+		watch.setThreshold(threshold);
+		return watch;
+	}
+
+	private static StockChange change(Long id, Integer previous, int current) {
+		return new StockChange(id, "SKU-" + id, "Books", previous, current);
+	}
+}